@@ -0,0 +1,95 @@
+package com.itfollowsmod;
+
+import net.minecraftforge.common.ForgeConfigSpec;
+
+/**
+ * Immutable copy of the common config, plus values derived from it. Reading a
+ * field here is a plain field read, where ForgeConfigSpec values go through
+ * the config's lookup machinery on every get(). ModConfig builds a new
+ * snapshot whenever the config file is loaded or reloaded; until then it
+ * holds the defaults.
+ */
+public final class ConfigSnapshot {
+    // Entity Stats
+    public final double stalkerMovementSpeed;
+    public final double stalkerAttackDamage;
+    public final boolean stalkerIsInvincible;
+    public final double stalkerMaxHealth;
+    public final double stalkerWakingDistance;
+    public final boolean stalkerPreventSleep;
+    public final int minimumSpawnDistance;
+    public final int maximumSpawnDistance;
+    public final double breakableBlockHardness;
+    public final double breakablePathCost;
+    public final int tunnelBlocksPerTick;
+    public final boolean perPlayerStalkers;
+
+    // Sound Settings
+    public final boolean enableProximitySounds;
+    public final boolean enableAttackSounds;
+    public final boolean enableDamageSounds;
+
+    // Logging settings
+    public final boolean enableLogging;
+
+    // Performance settings
+    public final boolean enableRespawnPlanner;
+    public final int respawnPlannerBudgetMicros;
+    public final int spawnCacheMaxChunks;
+    public final boolean spawnOnlyLoadedChunks;
+    public final boolean enableVirtualPursuit;
+    public final boolean enablePersistentSpawnIndex;
+    public final boolean enableAsyncPathfinding;
+    public final boolean enableFlowFieldNavigation;
+    public final boolean validateRespawnReachability;
+
+    // Derived values
+    public final double minimumSpawnDistanceSqr;
+    public final double maximumSpawnDistanceSqr;
+    public final double stalkerWakingDistanceSqr;
+
+    /**
+     * Copies the config.
+     *
+     * @param useDefaults Take the default values instead of the loaded ones,
+     *                    for when the config file hasn't been read yet.
+     */
+    ConfigSnapshot(boolean useDefaults) {
+        this.stalkerMovementSpeed = read(ModConfig.STALKER_MOVEMENT_SPEED, useDefaults);
+        this.stalkerAttackDamage = read(ModConfig.STALKER_ATTACK_DAMAGE, useDefaults);
+        this.stalkerIsInvincible = read(ModConfig.STALKER_IS_INVINCIBLE, useDefaults);
+        this.stalkerMaxHealth = read(ModConfig.STALKER_MAX_HEALTH, useDefaults);
+        this.stalkerWakingDistance = read(ModConfig.STALKER_WAKING_DISTANCE, useDefaults);
+        this.stalkerPreventSleep = read(ModConfig.STALKER_PREVENT_SLEEP, useDefaults);
+        this.minimumSpawnDistance = read(ModConfig.MINIMUM_SPAWN_DISTANCE, useDefaults);
+        this.maximumSpawnDistance = read(ModConfig.MAXIMUM_SPAWN_DISTANCE, useDefaults);
+        this.breakableBlockHardness = read(ModConfig.BREAKABLE_BLOCK_HARDNESS, useDefaults);
+        this.breakablePathCost = read(ModConfig.BREAKABLE_PATH_COST, useDefaults);
+        this.tunnelBlocksPerTick = read(ModConfig.TUNNEL_BLOCKS_PER_TICK, useDefaults);
+        this.perPlayerStalkers = read(ModConfig.PER_PLAYER_STALKERS, useDefaults);
+
+        this.enableProximitySounds = read(ModConfig.ENABLE_PROXIMITY_SOUNDS, useDefaults);
+        this.enableAttackSounds = read(ModConfig.ENABLE_ATTACK_SOUNDS, useDefaults);
+        this.enableDamageSounds = read(ModConfig.ENABLE_DAMAGE_SOUNDS, useDefaults);
+
+        this.enableLogging = read(ModConfig.ENABLE_LOGGING, useDefaults);
+
+        this.enableRespawnPlanner = read(ModConfig.ENABLE_RESPAWN_PLANNER, useDefaults);
+        this.respawnPlannerBudgetMicros = read(ModConfig.RESPAWN_PLANNER_BUDGET_MICROS, useDefaults);
+        this.spawnCacheMaxChunks = read(ModConfig.SPAWN_CACHE_MAX_CHUNKS, useDefaults);
+        this.spawnOnlyLoadedChunks = read(ModConfig.SPAWN_ONLY_LOADED_CHUNKS, useDefaults);
+        this.enableVirtualPursuit = read(ModConfig.ENABLE_VIRTUAL_PURSUIT, useDefaults);
+        this.enablePersistentSpawnIndex = read(ModConfig.ENABLE_PERSISTENT_SPAWN_INDEX, useDefaults);
+        this.enableAsyncPathfinding = read(ModConfig.ENABLE_ASYNC_PATHFINDING, useDefaults);
+        this.enableFlowFieldNavigation = read(ModConfig.ENABLE_FLOW_FIELD_NAVIGATION, useDefaults);
+        this.validateRespawnReachability = read(ModConfig.VALIDATE_RESPAWN_REACHABILITY, useDefaults);
+
+        this.minimumSpawnDistanceSqr = (double) minimumSpawnDistance * minimumSpawnDistance;
+        this.maximumSpawnDistanceSqr = (double) maximumSpawnDistance * maximumSpawnDistance;
+        this.stalkerWakingDistanceSqr = stalkerWakingDistance * stalkerWakingDistance;
+    }
+
+    private static <T> T read(ForgeConfigSpec.ConfigValue<T> value, boolean useDefaults) {
+        return useDefaults ? value.getDefault() : value.get();
+    }
+}
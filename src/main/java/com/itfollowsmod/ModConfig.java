@@ -1,15 +1,19 @@
 package com.itfollowsmod;
 
+import com.itfollowsmod.world.BreakabilityTable;
 import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.config.ModConfig.Type;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
 import net.minecraftforge.fml.ModLoadingContext;
 
 /**
  * ModConfig class for the It Follows Mod. This class is used to define the
  * configuration options for the mod.
  * The configuration options are stored in a ForgeConfigSpec object, which is
- * then registered with the mod.
+ * then registered with the mod. Code that runs every tick reads the
+ * ConfigSnapshot from current() instead of calling get() on the values.
  */
 @Mod.EventBusSubscriber(modid = ItFollowsMod.MOD_ID)
 public class ModConfig {
@@ -27,6 +31,9 @@ public class ModConfig {
         public static ForgeConfigSpec.IntValue MINIMUM_SPAWN_DISTANCE;
         public static ForgeConfigSpec.IntValue MAXIMUM_SPAWN_DISTANCE;
         public static ForgeConfigSpec.DoubleValue BREAKABLE_BLOCK_HARDNESS;
+        public static ForgeConfigSpec.DoubleValue BREAKABLE_PATH_COST;
+        public static ForgeConfigSpec.IntValue TUNNEL_BLOCKS_PER_TICK;
+        public static ForgeConfigSpec.BooleanValue PER_PLAYER_STALKERS;
 
         // Sound Settings
         public static ForgeConfigSpec.BooleanValue ENABLE_PROXIMITY_SOUNDS;
@@ -36,6 +43,19 @@ public class ModConfig {
         // Logging settings
         public static ForgeConfigSpec.BooleanValue ENABLE_LOGGING;
 
+        // Performance settings
+        public static ForgeConfigSpec.BooleanValue ENABLE_RESPAWN_PLANNER;
+        public static ForgeConfigSpec.IntValue RESPAWN_PLANNER_BUDGET_MICROS;
+        public static ForgeConfigSpec.IntValue SPAWN_CACHE_MAX_CHUNKS;
+        public static ForgeConfigSpec.BooleanValue SPAWN_ONLY_LOADED_CHUNKS;
+        public static ForgeConfigSpec.BooleanValue ENABLE_VIRTUAL_PURSUIT;
+        public static ForgeConfigSpec.BooleanValue ENABLE_PERSISTENT_SPAWN_INDEX;
+        public static ForgeConfigSpec.BooleanValue ENABLE_ASYNC_PATHFINDING;
+        public static ForgeConfigSpec.BooleanValue ENABLE_FLOW_FIELD_NAVIGATION;
+        public static ForgeConfigSpec.BooleanValue VALIDATE_RESPAWN_REACHABILITY;
+
+        private static volatile ConfigSnapshot snapshot;
+
         static {
                 COMMON_BUILDER.comment("It Follows Mod Configuration").push("general");
 
@@ -77,6 +97,18 @@ public class ModConfig {
                                 .comment("Softness threshold for blocks the entity can break (default: 0.5)")
                                 .defineInRange("breakableBlockHardness", 0.5D, 0.0D, 1315.0D);
 
+                BREAKABLE_PATH_COST = COMMON_BUILDER
+                                .comment("Extra path cost of going through a block the entity can break, instead of around it (default: 8.0)")
+                                .defineInRange("breakablePathCost", 8.0D, 0.0D, 64.0D);
+
+                TUNNEL_BLOCKS_PER_TICK = COMMON_BUILDER
+                                .comment("Blocks per tick the entity may break when digging through a wall of breakable blocks in its way, 0 to turn tunneling off (default: 2)")
+                                .defineInRange("tunnelBlocksPerTick", 2, 0, 16);
+
+                PER_PLAYER_STALKERS = COMMON_BUILDER
+                                .comment("Give every player their own Stalker instead of one Stalker hunting the nearest player (default: false)")
+                                .define("perPlayerStalkers", false);
+
                 COMMON_BUILDER.pop();
 
                 // Sound Settings Section
@@ -104,8 +136,58 @@ public class ModConfig {
                                 .define("enableLogging", false);
                 COMMON_BUILDER.pop();
 
+                // Performance Settings Section
+                COMMON_BUILDER.comment("Performance Settings").push("performance");
+
+                ENABLE_RESPAWN_PLANNER = COMMON_BUILDER
+                                .comment("Search for the next respawn position in the background instead of during the respawn (default: true)")
+                                .define("enableRespawnPlanner", true);
+
+                RESPAWN_PLANNER_BUDGET_MICROS = COMMON_BUILDER
+                                .comment("Time the respawn planner may spend per tick, in microseconds (default: 500)")
+                                .defineInRange("respawnPlannerBudgetMicros", 500, 50, 5000);
+
+                SPAWN_CACHE_MAX_CHUNKS = COMMON_BUILDER
+                                .comment("Number of chunks whose spawn positions are remembered, 0 to disable (default: 256)")
+                                .defineInRange("spawnCacheMaxChunks", 256, 0, 4096);
+
+                SPAWN_ONLY_LOADED_CHUNKS = COMMON_BUILDER
+                                .comment("Only look for spawn positions in chunks that are already loaded (default: true)")
+                                .define("spawnOnlyLoadedChunks", true);
+
+                ENABLE_VIRTUAL_PURSUIT = COMMON_BUILDER
+                                .comment("Keep unloaded Stalkers moving toward their player and bring them back once they are within simulation distance (default: true)")
+                                .define("enableVirtualPursuit", true);
+
+                ENABLE_PERSISTENT_SPAWN_INDEX = COMMON_BUILDER
+                                .comment("Remember checked spawn columns on disk (in the world's data folder) across restarts (default: true)")
+                                .define("enablePersistentSpawnIndex", true);
+
+                ENABLE_ASYNC_PATHFINDING = COMMON_BUILDER
+                                .comment("Search Stalker paths on worker threads, against a copy of the nearby blocks, instead of in the server tick (default: false)")
+                                .define("enableAsyncPathfinding", false);
+
+                ENABLE_FLOW_FIELD_NAVIGATION = COMMON_BUILDER
+                                .comment("Let all Stalkers hunting a player walk down one shared distance field around that player instead of each searching its own path (default: false)")
+                                .define("enableFlowFieldNavigation", false);
+
+                VALIDATE_RESPAWN_REACHABILITY = COMMON_BUILDER
+                                .comment("Only respawn at positions from which the player looks reachable, instead of in sealed caves or on islands (default: true)")
+                                .define("validateRespawnReachability", true);
+
+                COMMON_BUILDER.pop();
+
                 COMMON_BUILDER.pop();
                 COMMON_CONFIG = COMMON_BUILDER.build();
+                snapshot = new ConfigSnapshot(true);
+        }
+
+        /**
+         * Gets the config as of the last (re)load, or the defaults before the
+         * config file has been read.
+         */
+        public static ConfigSnapshot current() {
+                return snapshot;
         }
 
         /**
@@ -115,4 +197,29 @@ public class ModConfig {
                 ModLoadingContext.get().registerConfig(Type.COMMON, COMMON_CONFIG);
                 ItFollowsMod.LOGGER.info("Registered It Follows Mod configuration");
         }
-}
\ No newline at end of file
+
+        /**
+         * Rebuilds the snapshot, and has the breakability table rebuilt, when
+         * the config file is loaded or edited. Config events are fired on the
+         * mod bus, hence the separate subscriber.
+         */
+        @Mod.EventBusSubscriber(modid = ItFollowsMod.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD)
+        public static class SnapshotUpdater {
+                @SubscribeEvent
+                public static void onConfigLoading(ModConfigEvent.Loading event) {
+                        rebuild(event);
+                }
+
+                @SubscribeEvent
+                public static void onConfigReloading(ModConfigEvent.Reloading event) {
+                        rebuild(event);
+                }
+
+                private static void rebuild(ModConfigEvent event) {
+                        if (event.getConfig().getSpec() == COMMON_CONFIG) {
+                                snapshot = new ConfigSnapshot(false);
+                                BreakabilityTable.onConfigChanged();
+                        }
+                }
+        }
+}
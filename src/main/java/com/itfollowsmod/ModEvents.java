@@ -2,22 +2,30 @@ package com.itfollowsmod;
 
 import com.itfollowsmod.entity.StalkerEntity;
 import com.itfollowsmod.registry.ModEntities;
+import com.itfollowsmod.spawn.AnnulusSampler;
+import com.itfollowsmod.spawn.SpawnLocator;
+import com.itfollowsmod.world.StalkerRegistry;
+import com.itfollowsmod.world.StalkerSpatialIndex;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.levelgen.Heightmap;
-import net.minecraft.world.phys.AABB;
 import net.minecraft.world.entity.Entity;
 
-import java.util.Random;
 import java.util.List;
-import java.util.Comparator;
+import java.util.Random;
+import java.util.UUID;
 
 @Mod.EventBusSubscriber(modid = "itfollowsmod")
 public class ModEvents {
+    // Join spawns happen on the server thread only, one at a time
+    private static final AnnulusSampler JOIN_SAMPLER = new AnnulusSampler();
+    private static final Random RANDOM = new Random();
+    private static final long STRANDED_TIMEOUT = 24000; // One day unloaded, anywhere, and it's not coming back
 
     @SubscribeEvent
     public static void onPlayerJoin(PlayerEvent.PlayerLoggedInEvent event) {
@@ -25,11 +33,16 @@ public class ModEvents {
         if (!player.level.isClientSide && player.level instanceof ServerLevel serverLevel) {
             cleanUpStalkers(serverLevel); // Hopefully this works...
 
-            boolean stalkerExists = !serverLevel.getEntitiesOfClass(
-                    StalkerEntity.class,
-                    new AABB(-30000000, serverLevel.getMinBuildHeight(), -30000000,
-                            30000000, serverLevel.getMaxBuildHeight(), 30000000))
-                    .isEmpty();
+            if (ModConfig.current().perPlayerStalkers) {
+                assignStalker(serverLevel, player);
+                return;
+            }
+
+            StalkerRegistry registry = StalkerRegistry.get(serverLevel);
+            for (StalkerRegistry.Entry entry : registry.getEntries()) {
+                retireIfStranded(serverLevel, registry, entry);
+            }
+            boolean stalkerExists = !registry.isEmpty();
 
             if (!stalkerExists) {
                 ItFollowsMod.LOGGER.info("[It Follows] No Stalker found. Spawning one near player {}",
@@ -41,40 +54,112 @@ public class ModEvents {
         }
     }
 
+    /**
+     * Per-player mode: makes sure the joining player has a Stalker of their
+     * own, preferring an unbound one nearby over spawning a new one.
+     */
+    private static void assignStalker(ServerLevel world, Player player) {
+        StalkerRegistry registry = StalkerRegistry.get(world);
+        UUID boundId = registry.getStalkerFor(player.getUUID());
+        if (boundId != null)
+            retireIfStranded(world, registry, registry.getEntry(boundId));
+
+        if (registry.getStalkerFor(player.getUUID()) != null) {
+            ItFollowsMod.LOGGER.info("[It Follows] Player {} already has a Stalker — no spawn triggered.",
+                    player.getName().getString());
+            return;
+        }
+
+        StalkerEntity unbound = StalkerSpatialIndex.get(world).nearestStalker(player, 512.0,
+                stalker -> stalker.getOwnerId() == null);
+        if (unbound != null) {
+            unbound.setOwnerId(player.getUUID());
+            registry.register(unbound);
+            ItFollowsMod.LOGGER.info("[It Follows] Bound an existing Stalker to player {}", player.getName().getString());
+            return;
+        }
+
+        ItFollowsMod.LOGGER.info("[It Follows] No Stalker for player {}. Spawning one nearby.", player.getName().getString());
+        spawnNearPlayer(world, player);
+    }
+
+    /**
+     * Retires a registered Stalker that is unloaded and either isn't pursuing
+     * anyone who is online, or has been unloaded for a day. Nothing brings
+     * such a Stalker back (its pursuit is off or stalled, or it was killed
+     * while its chunk was unloading), and as long as it is registered nobody
+     * would get a new one. It discards itself if it ever does load. Where the
+     * joining player is doesn't matter: a Stalker virtually pursuing someone
+     * else who is online is left alone.
+     */
+    private static void retireIfStranded(ServerLevel world, StalkerRegistry registry, StalkerRegistry.Entry entry) {
+        if (entry == null || entry.isLoaded())
+            return;
+
+        UUID target = entry.getPursuitTarget();
+        boolean pursuing = target != null && world.getServer().getPlayerList().getPlayer(target) != null;
+        if (pursuing && world.getGameTime() - entry.getUnloadedAt() < STRANDED_TIMEOUT)
+            return;
+
+        registry.retire(entry.getId());
+        ItFollowsMod.LOGGER.info("[It Follows] Retired unloaded Stalker {} ({})", entry.getId(),
+                pursuing ? "unloaded for a day" : "its player is offline");
+    }
+
     public static void spawnNearPlayer(ServerLevel world, Player player) {
-        Random random = new Random();
-        double angle = random.nextDouble() * Math.PI * 2; // Random direction
+        AnnulusSampler sampler = JOIN_SAMPLER;
+        sampler.reset(RANDOM, 48, 80); // 3-5 chunks (48-80 blocks)
+        BlockPos.MutableBlockPos column = new BlockPos.MutableBlockPos();
+        boolean onlyLoaded = ModConfig.current().spawnOnlyLoadedChunks;
+        LevelChunk chunk = null;
+
+        // Prefer a spot in a chunk that's already loaded, so joining doesn't pull in new chunks
+        for (int attempt = 0; attempt < 10 && chunk == null; attempt++) {
+            sampler.next(player.getX(), player.getZ(), column);
+            chunk = SpawnLocator.getColumnChunk(world, column.getX(), column.getZ(), !onlyLoaded);
+        }
 
-        double distance = 48 + random.nextDouble() * 32; // 3-5 chunks (48-80 blocks)
-        double spawnX = player.getX() + Math.cos(angle) * distance;
-        double spawnZ = player.getZ() + Math.sin(angle) * distance;
-        double spawnY = world.getHeightmapPos(Heightmap.Types.WORLD_SURFACE, new BlockPos(spawnX, 0, spawnZ)).getY();
+        // Nothing loaded around the player yet - load the last spot rather than not spawning at all
+        if (chunk == null) {
+            chunk = SpawnLocator.getColumnChunk(world, column.getX(), column.getZ(), true);
+        }
+
+        double spawnX = column.getX() + 0.5;
+        double spawnZ = column.getZ() + 0.5;
+        double spawnY = chunk.getHeight(Heightmap.Types.WORLD_SURFACE, column.getX() & 15, column.getZ() & 15) + 1;
 
         StalkerEntity stalker = new StalkerEntity(ModEntities.STALKER.get(), world);
         stalker.setPos(spawnX, spawnY, spawnZ);
+        if (ModConfig.current().perPlayerStalkers) {
+            stalker.setOwnerId(player.getUUID());
+        }
         world.addFreshEntity(stalker);
     }
 
     public static void cleanUpStalkers(ServerLevel world) {
-        List<StalkerEntity> stalkers = world.getEntitiesOfClass(
-                StalkerEntity.class,
-                new AABB(
-                        -30000000, world.getMinBuildHeight(), -30000000,
-                        30000000, world.getMaxBuildHeight(), 30000000));
+        StalkerRegistry registry = StalkerRegistry.get(world);
 
-        if (stalkers.size() <= 1) {
+        if (registry.size() <= 1) {
             ItFollowsMod.LOGGER.info("[It Follows] No extra stalkers found.");
             return;
         }
 
-        stalkers.sort(Comparator.comparingInt(Entity::getId));
-        StalkerEntity oldest = stalkers.get(0);
+        // In per-player mode only Stalkers bound to the same player are duplicates
+        List<UUID> duplicates = registry.getDuplicates(ModConfig.current().perPlayerStalkers);
+        if (duplicates.isEmpty()) {
+            ItFollowsMod.LOGGER.info("[It Follows] No extra stalkers found.");
+            return;
+        }
 
-        ItFollowsMod.LOGGER.info("[It Follows] Found {} Stalkers. Keeping oldest (ID {}). Removing the rest.",
-                stalkers.size(), oldest.getId());
+        ItFollowsMod.LOGGER.info("[It Follows] Found {} Stalkers. Keeping the oldest. Removing {} duplicates.",
+                registry.size(), duplicates.size());
 
-        for (int i = 1; i < stalkers.size(); i++) {
-            stalkers.get(i).discard();
+        // Loaded duplicates go now, unloaded ones remove themselves when their chunk loads
+        for (UUID id : duplicates) {
+            Entity duplicate = world.getEntity(id);
+            if (duplicate != null) {
+                duplicate.discard();
+            }
         }
     }
 
@@ -0,0 +1,168 @@
+package com.itfollowsmod.command;
+
+import com.itfollowsmod.ItFollowsMod;
+import com.itfollowsmod.ModConfig;
+import com.itfollowsmod.pathfinding.SectionGraph;
+import com.itfollowsmod.spawn.AnnulusSampler;
+import com.itfollowsmod.spawn.PersistentSpawnIndex;
+import com.itfollowsmod.spawn.ReachabilityCheck;
+import com.itfollowsmod.spawn.SpawnCandidateCache;
+import com.itfollowsmod.spawn.SpawnLocator;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Random;
+
+/**
+ * The /itfollows admin command: inspect and rebuild the spawn index of the
+ * dimension the command runs in, and check that respawn reachability
+ * validation lets ordinary surface spots through.
+ */
+@Mod.EventBusSubscriber(modid = ItFollowsMod.MOD_ID)
+public class ItFollowsCommand {
+    private static final int DEFAULT_REBUILD_RADIUS = 8; // Chunks
+    private static final int DEFAULT_REACHABILITY_SAMPLES = 8; // Surface candidates
+    private static final int REACHABILITY_PROBES_PER_SAMPLE = 10; // Columns tried per candidate wanted
+
+    private static final Random random = new Random();
+
+    /**
+     * Registers the command tree.
+     */
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        event.getDispatcher().register(Commands.literal("itfollows")
+                .requires(source -> source.hasPermission(2))
+                .then(Commands.literal("spawnindex")
+                        .then(Commands.literal("info")
+                                .executes(ItFollowsCommand::showSpawnIndexInfo))
+                        .then(Commands.literal("rebuild")
+                                .executes(context -> rebuildSpawnIndex(context, DEFAULT_REBUILD_RADIUS))
+                                .then(Commands.argument("radius", IntegerArgumentType.integer(0, 32))
+                                        .executes(context -> rebuildSpawnIndex(context,
+                                                IntegerArgumentType.getInteger(context, "radius"))))))
+                .then(Commands.literal("reachability")
+                        .executes(context -> checkReachability(context, DEFAULT_REACHABILITY_SAMPLES))
+                        .then(Commands.argument("samples", IntegerArgumentType.integer(1, 64))
+                                .executes(context -> checkReachability(context,
+                                        IntegerArgumentType.getInteger(context, "samples"))))));
+    }
+
+    /**
+     * Prints the index's size and how many chunks spawn searches have loaded.
+     */
+    private static int showSpawnIndexInfo(CommandContext<CommandSourceStack> context) {
+        ServerLevel world = context.getSource().getLevel();
+        PersistentSpawnIndex index = PersistentSpawnIndex.get(world);
+
+        if (index == null) {
+            context.getSource().sendSuccess(Component.literal("Spawn index is disabled or failed for "
+                    + world.dimension().location()), false);
+        } else {
+            context.getSource().sendSuccess(Component.literal("Spawn index for " + world.dimension().location()
+                    + ": " + index.getRegionCount() + " region files, " + index.getOpenChunkCount()
+                    + " chunks in open regions"), false);
+        }
+        context.getSource().sendSuccess(Component.literal("Chunk loads caused by spawn searches: "
+                + SpawnLocator.getForcedChunkLoads()), false);
+        return 1;
+    }
+
+    /**
+     * Throws the dimension's index away and scans every loaded chunk around the
+     * command's position again, so the new index starts out filled.
+     */
+    private static int rebuildSpawnIndex(CommandContext<CommandSourceStack> context, int radius) {
+        ServerLevel world = context.getSource().getLevel();
+        BlockPos center = new BlockPos(context.getSource().getPosition());
+
+        int deleted = PersistentSpawnIndex.clear(world);
+        SpawnCandidateCache.clear(world);
+        if (PersistentSpawnIndex.get(world) == null) {
+            context.getSource().sendFailure(Component.literal("Spawn index is disabled (enablePersistentSpawnIndex)"));
+            return 0;
+        }
+
+        int chunks = 0;
+        BlockPos.MutableBlockPos column = new BlockPos.MutableBlockPos();
+        int centerChunkX = center.getX() >> 4;
+        int centerChunkZ = center.getZ() >> 4;
+
+        for (int chunkX = centerChunkX - radius; chunkX <= centerChunkX + radius; chunkX++) {
+            for (int chunkZ = centerChunkZ - radius; chunkZ <= centerChunkZ + radius; chunkZ++) {
+                LevelChunk chunk = world.getChunkSource().getChunkNow(chunkX, chunkZ);
+                if (chunk == null)
+                    continue; // Only what's loaded, a rebuild shouldn't generate terrain
+
+                for (int i = 0; i < 256; i++) {
+                    column.set((chunkX << 4) + (i >> 4), 0, (chunkZ << 4) + (i & 15));
+                    SpawnLocator.getSurfaceSpawnPos(world, column, false);
+                    SpawnLocator.getCaveSpawnPos(world, column, false);
+                }
+                chunks++;
+            }
+        }
+
+        if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Rebuilt spawn index of {}: {} old files deleted, {} chunks scanned", world.dimension().location(), deleted, chunks);
+        context.getSource().sendSuccess(Component.literal("Rebuilt spawn index: deleted " + deleted
+                + " region files, scanned " + chunks + " loaded chunks"), true);
+        return chunks;
+    }
+
+    /**
+     * Samples surface spawn candidates on the spawn ring around the command's
+     * position, the way respawns do, and reports how many ReachabilityCheck
+     * accepts. On open ground nearly all of them should pass.
+     */
+    private static int checkReachability(CommandContext<CommandSourceStack> context, int samples) {
+        ServerLevel world = context.getSource().getLevel();
+        BlockPos center = new BlockPos(context.getSource().getPosition());
+        long startTime = world.getGameTime();
+
+        AnnulusSampler sampler = new AnnulusSampler();
+        sampler.resetToSpawnRing(random, world);
+        BlockPos.MutableBlockPos column = new BlockPos.MutableBlockPos();
+        int checked = 0;
+        int reachable = 0;
+        int expanded = 0;
+
+        for (int probe = 0; probe < samples * REACHABILITY_PROBES_PER_SAMPLE && checked < samples; probe++) {
+            BlockPos candidate = SpawnLocator.getSurfaceSpawnPos(world,
+                    sampler.next(center.getX() + 0.5, center.getZ() + 0.5, column), false);
+            if (candidate == null)
+                continue;
+
+            ReachabilityCheck.Search search = new ReachabilityCheck.Search(world, candidate, center);
+            while (!search.isDone()) {
+                search.step(world, Integer.MAX_VALUE, false);
+            }
+            checked++;
+            expanded += search.getExpanded();
+            if (search.isReachable())
+                reachable++;
+            else if (ModConfig.current().enableLogging)
+                ItFollowsMod.LOGGER.info("[It Follows] Surface candidate {} is not reachable from {} ({} sections)", candidate, center, search.getExpanded());
+        }
+
+        if (checked == 0) {
+            context.getSource().sendFailure(Component.literal("No loaded surface spawn candidates around "
+                    + center.toShortString()));
+            return 0;
+        }
+
+        String deferred = SectionGraph.get(world).wasDeferredSince(startTime)
+                ? " (some sections were over the summary budget and assumed open, run again to check them)" : "";
+        context.getSource().sendSuccess(Component.literal("Reachable surface candidates: " + reachable + " of "
+                + checked + ", " + (expanded / checked) + " sections looked at on average" + deferred), false);
+        return reachable;
+    }
+}
@@ -0,0 +1,125 @@
+package com.itfollowsmod.entity;
+
+import com.itfollowsmod.world.BlockChangeTracker;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.DoorBlock;
+import net.minecraft.world.level.block.FenceGateBlock;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Looks for closed doors and gates around a Stalker for all four door and
+ * gate goals at once. Trapdoors are left to the PathObstaclePlanner, which
+ * opens the ones on the path. The 3x2x3 neighborhood is read only when the
+ * Stalker moved to another block, a block event arrived for a nearby
+ * section, a goal reported acting on a block, or the last look is a second
+ * old; otherwise the goals get the remembered result.
+ */
+public class ObstacleScanner {
+    private static final long MAX_SCAN_AGE = 20; // Catches changes made without block events
+
+    private final StalkerEntity stalker;
+    private long checkedTime = Long.MIN_VALUE; // Game time of the last "is the result still good" check
+    private long scanTime = Long.MIN_VALUE; // Game time of the last real scan
+    private BlockPos scannedFrom = null;
+
+    private BlockPos closedDoor = null;
+    private BlockPos closedGate = null;
+    private boolean closedGateAtFeet = false;
+
+    /**
+     * Creates a scanner for one Stalker.
+     *
+     * @param stalker The Stalker whose surroundings are scanned.
+     */
+    public ObstacleScanner(StalkerEntity stalker) {
+        this.stalker = stalker;
+    }
+
+    /**
+     * Gets the closest closed door around the Stalker.
+     *
+     * @return Its position, or null if there is none.
+     */
+    public BlockPos getClosedDoor() {
+        update();
+        return closedDoor;
+    }
+
+    /**
+     * Gets the closest closed fence gate around the Stalker.
+     *
+     * @return Its position, or null if there is none.
+     */
+    public BlockPos getClosedGate() {
+        update();
+        return closedGate;
+    }
+
+    /**
+     * Checks if the Stalker stands in a closed fence gate.
+     */
+    public boolean isClosedGateAtFeet() {
+        update();
+        return closedGateAtFeet;
+    }
+
+    /**
+     * Forces a new scan on the next question, for when a goal just opened or
+     * broke something.
+     */
+    public void invalidate() {
+        scannedFrom = null;
+        checkedTime = Long.MIN_VALUE;
+    }
+
+    /**
+     * Rescans if the remembered result may be outdated. Checked at most once
+     * per tick, however many goals ask.
+     */
+    private void update() {
+        long now = stalker.level.getGameTime();
+        if (now == checkedTime)
+            return;
+        checkedTime = now;
+
+        BlockPos pos = stalker.blockPosition();
+        if (pos.equals(scannedFrom) && now - scanTime < MAX_SCAN_AGE
+                && !(stalker.level instanceof ServerLevel serverLevel
+                        && BlockChangeTracker.hasChangedSince(serverLevel, pos.offset(-1, 0, -1), pos.offset(1, 1, 1), scanTime)))
+            return;
+
+        scan(pos);
+        scannedFrom = pos;
+        scanTime = now;
+    }
+
+    private void scan(BlockPos entityPos) {
+        closedDoor = null;
+        closedGate = null;
+        closedGateAtFeet = false;
+        int doorDistance = Integer.MAX_VALUE;
+        int gateDistance = Integer.MAX_VALUE;
+
+        for (BlockPos pos : BlockPos.betweenClosed(entityPos.offset(-1, 0, -1), entityPos.offset(1, 1, 1))) {
+            BlockState state = stalker.level.getBlockState(pos);
+            int distance = pos.distManhattan(entityPos);
+
+            if (state.getBlock() instanceof DoorBlock) {
+                if (!state.getValue(DoorBlock.OPEN) && distance < doorDistance) {
+                    closedDoor = pos.immutable();
+                    doorDistance = distance;
+                }
+            } else if (state.getBlock() instanceof FenceGateBlock) {
+                if (!state.getValue(FenceGateBlock.OPEN)) {
+                    if (distance < gateDistance) {
+                        closedGate = pos.immutable();
+                        gateDistance = distance;
+                    }
+                    if (distance == 0)
+                        closedGateAtFeet = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.itfollowsmod.entity;
+
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+
+import java.util.function.Predicate;
+
+/**
+ * Answers "is this entity standing between the Stalker and its player" for
+ * both the collision attack and the collision target goal. The direction to
+ * the player is normalized once per tick, and the test itself is a dot
+ * product on plain doubles against squared distances, so checking a crowd
+ * of mobs allocates nothing. The closest entity in the path is remembered
+ * for the rest of the tick, so the target goal and the collision attack
+ * share a single level query.
+ */
+public class PathConeQuery {
+    private static final double MIN_COS = 0.7; // About 45 degrees either side of the player
+    private static final double MIN_COS_SQR = MIN_COS * MIN_COS;
+    private static final double MAX_DISTANCE_SQR = 5.0 * 5.0;
+
+    private final StalkerEntity stalker;
+    private final Predicate<LivingEntity> closestCollector = this::collectClosest;
+
+    // Direction to the player, refreshed once per tick
+    private int directionTick = -1;
+    private Player directionTarget = null;
+    private double dirX;
+    private double dirY;
+    private double dirZ;
+    private boolean hasDirection;
+
+    // Last result of findClosest(), valid for the tick it was found in
+    private int resultTick = -1;
+    private Player resultTarget = null;
+    private double resultRadius;
+    private LivingEntity result = null;
+
+    // Running result of findClosest()
+    private Player searchTarget;
+    private LivingEntity closest;
+    private double closestDistanceSqr;
+
+    /**
+     * Creates a query for one Stalker.
+     *
+     * @param stalker The Stalker whose path is checked.
+     */
+    public PathConeQuery(StalkerEntity stalker) {
+        this.stalker = stalker;
+    }
+
+    /**
+     * Determines if an entity is in the direct path to the player: less than
+     * 5 blocks away and within the cone around the direction to the player.
+     *
+     * @param entity The entity to check.
+     * @param target The player being followed, may be null.
+     * @return True if the entity is in the path to the player.
+     */
+    public boolean isInPath(Entity entity, Player target) {
+        if (target == null || !updateDirection(target))
+            return false;
+
+        double dx = entity.getX() - stalker.getX();
+        double dy = entity.getY() - stalker.getY();
+        double dz = entity.getZ() - stalker.getZ();
+        double distanceSqr = dx * dx + dy * dy + dz * dz;
+        if (distanceSqr >= MAX_DISTANCE_SQR || distanceSqr == 0.0)
+            return false;
+
+        // cos(angle) > MIN_COS, without the square root of the distance
+        double dot = dirX * dx + dirY * dy + dirZ * dz;
+        return dot > 0.0 && dot * dot > MIN_COS_SQR * distanceSqr;
+    }
+
+    /**
+     * Finds the closest living entity (other than the Stalker and the player)
+     * that is in the path to the player and touches the Stalker's bounding
+     * box grown by the radius. The level query's predicate keeps track of the
+     * best candidate and rejects everything, so no result list is filled.
+     * Repeated calls within a tick return the first call's answer.
+     *
+     * @param target The player being followed.
+     * @param radius The radius to search in.
+     * @return The closest entity in the path, or null if there is none.
+     */
+    public LivingEntity findClosest(Player target, double radius) {
+        if (target == null)
+            return null;
+
+        if (resultTick == stalker.tickCount && resultTarget == target && resultRadius == radius)
+            return result != null && result.isAlive() ? result : null;
+
+        searchTarget = target;
+        closest = null;
+        closestDistanceSqr = Double.MAX_VALUE;
+
+        stalker.level.getEntitiesOfClass(LivingEntity.class,
+                stalker.getBoundingBox().inflate(radius), closestCollector);
+
+        resultTick = stalker.tickCount;
+        resultTarget = target;
+        resultRadius = radius;
+        result = closest;
+        searchTarget = null;
+        closest = null;
+        return result;
+    }
+
+    private boolean collectClosest(LivingEntity entity) {
+        if (entity == stalker || entity == searchTarget || !entity.isAlive())
+            return false;
+
+        double distanceSqr = stalker.distanceToSqr(entity);
+        if (distanceSqr < closestDistanceSqr && isInPath(entity, searchTarget)) {
+            closest = entity;
+            closestDistanceSqr = distanceSqr;
+        }
+        return false;
+    }
+
+    /**
+     * Normalizes the direction to the target, at most once per tick and
+     * target.
+     *
+     * @return False if the target is exactly where the Stalker is.
+     */
+    private boolean updateDirection(Player target) {
+        if (directionTick == stalker.tickCount && directionTarget == target)
+            return hasDirection;
+
+        directionTick = stalker.tickCount;
+        directionTarget = target;
+
+        double x = target.getX() - stalker.getX();
+        double y = target.getY() - stalker.getY();
+        double z = target.getZ() - stalker.getZ();
+        double length = Math.sqrt(x * x + y * y + z * z);
+
+        hasDirection = length >= 1.0E-4;
+        if (hasDirection) {
+            dirX = x / length;
+            dirY = y / length;
+            dirZ = z / length;
+        }
+        return hasDirection;
+    }
+}
@@ -0,0 +1,172 @@
+package com.itfollowsmod.entity;
+
+import com.itfollowsmod.ItFollowsMod;
+import com.itfollowsmod.ModConfig;
+import com.itfollowsmod.world.BreakabilityTable;
+import net.minecraft.core.BlockPos;
+import net.minecraft.sounds.SoundEvents;
+import net.minecraft.world.level.block.DoorBlock;
+import net.minecraft.world.level.block.FenceGateBlock;
+import net.minecraft.world.level.block.TrapDoorBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.Material;
+import net.minecraft.world.level.pathfinder.Node;
+import net.minecraft.world.level.pathfinder.Path;
+
+/**
+ * Deals with obstacles along the Stalker's path before it bumps into them.
+ * Whenever the navigation switches to a new path (or the Stalker gets halfway
+ * through the stretch looked at), the blocks at feet and head height of its
+ * next few nodes are read once and sorted into things to
+ * open (wooden doors, gates, trapdoors), things to break, and everything
+ * else. Each tick only the first planned action is looked at, and carried out
+ * once the Stalker is within reach of it; no neighborhood is polled.
+ */
+public class PathObstaclePlanner {
+    private static final int LOOKAHEAD_NODES = 8;
+    private static final int MAX_ACTIONS = LOOKAHEAD_NODES * 2; // Feet and head of every node
+    private static final double REACH_SQR = 2.5 * 2.5;
+
+    private enum Action {
+        OPEN,
+        BREAK
+    }
+
+    private final StalkerEntity stalker;
+    private Path plannedPath = null;
+
+    // Planned actions in path order, first at index `next`
+    private final long[] positions = new long[MAX_ACTIONS];
+    private final int[] nodeIndices = new int[MAX_ACTIONS];
+    private final Action[] actions = new Action[MAX_ACTIONS];
+    private int count = 0;
+    private int next = 0;
+    private int plannedUntil = 0; // Node index after the last one looked at
+
+    /**
+     * Creates a planner for one Stalker.
+     *
+     * @param stalker The Stalker whose path is planned for.
+     */
+    public PathObstaclePlanner(StalkerEntity stalker) {
+        this.stalker = stalker;
+    }
+
+    /**
+     * Checks if the Stalker is following a path this planner looks after.
+     */
+    public boolean hasPath() {
+        return plannedPath != null && !plannedPath.isDone();
+    }
+
+    /**
+     * Plans for a new path if the navigation has one, then carries out the
+     * next action if the Stalker has reached it.
+     */
+    public void tick() {
+        Path path = stalker.getNavigation().getPath();
+        if (path != plannedPath || (path != null && plannedUntil < path.getNodeCount()
+                && path.getNextNodeIndex() >= plannedUntil - LOOKAHEAD_NODES / 2)) {
+            plan(path);
+        }
+        if (path == null || path.isDone()) {
+            return;
+        }
+
+        // Forget actions for nodes already walked past
+        while (next < count && nodeIndices[next] < path.getNextNodeIndex() - 1) {
+            next++;
+        }
+        if (next >= count) {
+            return;
+        }
+
+        BlockPos pos = BlockPos.of(positions[next]);
+        if (stalker.distanceToSqr(pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5) > REACH_SQR) {
+            return;
+        }
+
+        perform(pos, actions[next]);
+        next++;
+    }
+
+    /**
+     * Classifies the blocks along the next stretch of a path.
+     */
+    private void plan(Path path) {
+        plannedPath = path;
+        count = 0;
+        next = 0;
+        if (path == null || path.isDone()) {
+            return;
+        }
+
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        int end = Math.min(path.getNodeCount(), path.getNextNodeIndex() + LOOKAHEAD_NODES);
+        plannedUntil = end;
+        for (int i = path.getNextNodeIndex(); i < end; i++) {
+            Node node = path.getNode(i);
+            for (int dy = 0; dy <= 1; dy++) {
+                cursor.set(node.x, node.y + dy, node.z);
+                Action action = classify(cursor, stalker.level.getBlockState(cursor));
+                if (action != null) {
+                    positions[count] = cursor.asLong();
+                    nodeIndices[count] = i;
+                    actions[count] = action;
+                    count++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Decides what to do about one block on the path.
+     *
+     * @return The action, or null if the block can be walked through or
+     * nothing can be done about it.
+     */
+    private Action classify(BlockPos pos, BlockState state) {
+        if (state.isAir()) {
+            return null;
+        }
+
+        if (state.getBlock() instanceof DoorBlock) {
+            if (state.getValue(DoorBlock.OPEN)) return null;
+            if (DoorBlock.isWoodenDoor(state)) return Action.OPEN;
+        } else if (state.getBlock() instanceof FenceGateBlock) {
+            return state.getValue(FenceGateBlock.OPEN) ? null : Action.OPEN;
+        } else if (state.getBlock() instanceof TrapDoorBlock) {
+            if (state.getValue(TrapDoorBlock.OPEN)) return null;
+            if (state.getMaterial() != Material.METAL) return Action.OPEN;
+        } else if (!state.getMaterial().blocksMotion()) {
+            return null;
+        }
+
+        return BreakabilityTable.isBreakable(state) ? Action.BREAK : null;
+    }
+
+    /**
+     * Opens or breaks a planned block, if it is still what was planned for.
+     */
+    private void perform(BlockPos pos, Action action) {
+        BlockState state = stalker.level.getBlockState(pos);
+        if (classify(pos, state) != action) {
+            return; // Changed since the path was planned
+        }
+
+        if (action == Action.OPEN) {
+            if (state.getBlock() instanceof DoorBlock) {
+                stalker.level.setBlock(pos, state.setValue(DoorBlock.OPEN, true), 10);
+            } else if (state.getBlock() instanceof FenceGateBlock) {
+                stalker.level.setBlock(pos, state.setValue(FenceGateBlock.OPEN, true), 10);
+            } else if (state.getBlock() instanceof TrapDoorBlock) {
+                stalker.level.setBlock(pos, state.setValue(TrapDoorBlock.OPEN, true), 10);
+            }
+            stalker.playSound(SoundEvents.FENCE_GATE_OPEN, 1.0F, 1.0F);
+        } else {
+            stalker.level.destroyBlock(pos, true);
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Broke {} in the path at {}", state.getBlock(), pos);
+        }
+        stalker.getObstacleScanner().invalidate();
+    }
+}
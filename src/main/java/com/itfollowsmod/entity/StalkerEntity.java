@@ -1,46 +1,63 @@
 package com.itfollowsmod.entity;
 
 // It Follows Mod imports
+import com.itfollowsmod.ConfigSnapshot;
 import com.itfollowsmod.ItFollowsMod;
 import com.itfollowsmod.ModConfig;
+import com.itfollowsmod.pathfinding.AsyncPathPlanner;
+import com.itfollowsmod.pathfinding.FlowField;
+import com.itfollowsmod.pathfinding.FlowFieldManager;
+import com.itfollowsmod.pathfinding.LongRangeRoute;
+import com.itfollowsmod.pathfinding.StalkerNavigation;
+import com.itfollowsmod.pathfinding.TargetPredictor;
 import com.itfollowsmod.registry.ModSounds;
+import com.itfollowsmod.spawn.AnnulusSampler;
+import com.itfollowsmod.spawn.ColumnScanner;
+import com.itfollowsmod.spawn.ReachabilityCheck;
+import com.itfollowsmod.spawn.RespawnPlanner;
+import com.itfollowsmod.spawn.SpawnLocator;
+import com.itfollowsmod.world.BreakabilityTable;
+import com.itfollowsmod.world.StalkerRegistry;
+import com.itfollowsmod.world.StalkerSpatialIndex;
+import com.itfollowsmod.world.VirtualPursuit;
 
 // Minecraft imports
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.sounds.SoundEvents;
 import net.minecraft.world.damagesource.DamageSource;
 import net.minecraft.world.entity.*;
+import net.minecraft.world.entity.ai.attributes.AttributeInstance;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
 import net.minecraft.world.entity.ai.attributes.AttributeSupplier;
 import net.minecraft.world.entity.ai.attributes.Attributes;
 import net.minecraft.world.entity.ai.goal.*;
 import net.minecraft.world.entity.ai.goal.target.NearestAttackableTargetGoal;
+import net.minecraft.world.entity.ai.goal.target.TargetGoal;
+import net.minecraft.world.entity.ai.targeting.TargetingConditions;
 import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.FenceGateBlock;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.level.levelgen.Heightmap;
-import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
-import net.minecraft.world.level.block.Block;
 import net.minecraft.tags.BlockTags;
-import net.minecraft.world.entity.ai.navigation.WallClimberNavigation;
 import net.minecraft.world.entity.ai.navigation.PathNavigation;
+import net.minecraft.world.level.pathfinder.BlockPathTypes;
+import net.minecraft.world.level.pathfinder.Node;
+import net.minecraft.world.level.pathfinder.Path;
 import net.minecraft.world.level.Level;
 
 // Forge Imports...
-import net.minecraftforge.registries.ForgeRegistries;
-import net.minecraft.resources.ResourceLocation;
 
 // Java imports
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Random;
+import java.util.UUID;
 
 /**
  * StalkerEntity Class: A creepy entity that follows the player and respawns
@@ -56,18 +73,54 @@ public class StalkerEntity extends PathfinderMob {
     private static final long BLOCK_BREAK_COOLDOWN = 20; // 1 second (about 20 ticks)
     private static final long SOUND_COOLDOWN = 100; // Prevents frequent sound playback
     private static final double SOUND_TRIGGER_DISTANCE = 15.0; // Distance to trigger sound
+    private static final int SPAWN_SEARCH_PROBES = 100; // Columns tried by findSpawnLocationNearPlayer
+    private static final int SPAWN_REACHABILITY_CHECKS = 4; // Spawnable columns findSpawnLocationNearPlayer checks for a way to the player
+    private static final int RESPAWN_TRIGGER_MARGIN = 32; // Beyond the spawn ring by this much before respawning
+    private static final double FULL_DETAIL_DISTANCE_SQR = 64.0 * 64.0; // Closer than this, everything runs at full rate
+    private static final double HALF_DETAIL_DISTANCE_SQR = 128.0 * 128.0; // Closer than this, at half rate
+    private static final int[] REPAIR_STEP_OFFSETS = { 0, 1, -1 }; // Y changes a path repair may take, in order
+    private static final UUID SPEED_TIER_MODIFIER_ID = UUID.fromString("5b0f7c1e-3d2a-4c8e-9f61-2a7d4e9b8c13");
+    private static final double CLOSE_ENTER_DISTANCE_SQR = 15.0 * 15.0;
+    private static final double CLOSE_EXIT_DISTANCE_SQR = 17.0 * 17.0;
+    private static final double NEAR_ENTER_DISTANCE_SQR = 30.0 * 30.0;
+    private static final double NEAR_EXIT_DISTANCE_SQR = 33.0 * 33.0;
+
+    /**
+     * Movement speed bonuses, as a fraction of the base speed.
+     */
+    private enum SpeedTier {
+        BASE(0.0),
+        NEAR(0.2),
+        CLOSE(0.3),
+        LIQUID(1.0);
+
+        private final double bonus;
+
+        SpeedTier(double bonus) {
+            this.bonus = bonus;
+        }
+    }
+
     private final Random random = new Random();
+    private final AnnulusSampler spawnSampler = new AnnulusSampler(); // Reused by every spawn search
+    private final TaskScheduler scheduler = new TaskScheduler(random); // Periodic work, spread over ticks
+    private SpeedTier speedTier = SpeedTier.BASE; // Tier whose modifier is currently applied
+    private final PathConeQuery pathCone = new PathConeQuery(this); // Who's between us and the player
+    private final ObstacleScanner obstacles = new ObstacleScanner(this); // Doors and gates around us, for the four goals
+    private final PathObstaclePlanner pathObstacles = new PathObstaclePlanner(this); // Doors and blocks on the path ahead
+    private final TunnelPlanner tunnel = new TunnelPlanner(this); // Digs through walls we keep running into
     private long lastRespawnTime = 0;
     private long lastBlockBreakTime = 0;
     private long lastSoundPlayTime = 0; // Prevents repeated sound spam
     private int stuckCounter = 0;
     private long targetResetTime = 0;
-    private long lastDistanceCheckTime = 0; // Prevents frequent distance checks
     private Player primaryTarget = null; // The player that is being followed
+    private UUID handedOverTarget = null; // Player it was after when replaced or saved, until primaryTarget is found
     private int distractionCounter = 0;
     private BlockPos lastRecordedPosition = null;
     private int stuckTicks = 0;
     private boolean lastReportedStuck = false;
+    private UUID ownerId = null; // Player this Stalker is bound to in per-player mode
 
     /**
      * Constructor for the StalkerEntity.
@@ -79,6 +132,19 @@ public class StalkerEntity extends PathfinderMob {
         super(type, world);
         this.setPersistenceRequired(); // Prevent despawning
         this.maxUpStep = 1.0F; // Can step up full blocks like a player
+
+        // Far from players, target refreshes, stuck checks and sounds slow down;
+        // the distance check is what brings us back, so it never does
+        scheduler.add(40, true, this::refreshPrimaryTarget);
+        scheduler.add(60, true, this::checkStuck);
+        scheduler.add(20, true, this::refocusPrimaryTarget);
+        scheduler.add(20, true, this::playSound);
+        scheduler.add(10, true, () -> {
+            if (ModConfig.current().stalkerPreventSleep)
+                this.wakeSleepingPlayers();
+        });
+        scheduler.add(5, false, this::breakBlocksInPath);
+        scheduler.add(100, false, this::checkPlayerDistanceAndRespawn);
     }
 
     /**
@@ -116,9 +182,9 @@ public class StalkerEntity extends PathfinderMob {
             removeDuplicateEntities();
 
             // Apply config values to attributes
-            this.getAttribute(Attributes.MAX_HEALTH).setBaseValue(ModConfig.STALKER_MAX_HEALTH.get());
-            this.getAttribute(Attributes.ATTACK_DAMAGE).setBaseValue(ModConfig.STALKER_ATTACK_DAMAGE.get());
-            this.getAttribute(Attributes.MOVEMENT_SPEED).setBaseValue(ModConfig.STALKER_MOVEMENT_SPEED.get());
+            this.getAttribute(Attributes.MAX_HEALTH).setBaseValue(ModConfig.current().stalkerMaxHealth);
+            this.getAttribute(Attributes.ATTACK_DAMAGE).setBaseValue(ModConfig.current().stalkerAttackDamage);
+            this.getAttribute(Attributes.MOVEMENT_SPEED).setBaseValue(ModConfig.current().stalkerMovementSpeed);
 
             // Debug log
             // ItFollowsMod.LOGGER.info("StalkerEntity Speed Set: {}",
@@ -157,54 +223,12 @@ public class StalkerEntity extends PathfinderMob {
         this.targetSelector.addGoal(PLAYER_FOCUS_PRIORITY, new NearestAttackableTargetGoal<>(this, Player.class, true));
 
         // Added a custom collision entity goal with lower priority
-        this.targetSelector.addGoal(COLLISION_ENTITY_PRIORITY,
-                new NearestAttackableTargetGoal<>(this, LivingEntity.class, 10, true, false,
-                        (livingEntity) -> {
-                            // Only target non-players that are in direct path to the player
-                            return !(livingEntity instanceof Player) &&
-                                    isEntityInPathToPlayer(livingEntity) &&
-                                    this.distanceTo(livingEntity) < COLLISION_ATTACK_RADIUS;
-                        }));
-    }
-
-    /**
-     * Determines if an entity is in the direct path to the player.
-     * 
-     * @param entity The entity to check
-     * @return True if the entity is in the path to the player
-     */
-    private boolean isEntityInPathToPlayer(LivingEntity entity) {
-        if (primaryTarget == null)
-            return false;
-
-        // Get vector from stalker to player
-        Vec3 stalkerToPlayer = new Vec3(
-                primaryTarget.getX() - this.getX(),
-                primaryTarget.getY() - this.getY(),
-                primaryTarget.getZ() - this.getZ());
-
-        // Get vector from stalker to entity
-        Vec3 stalkerToEntity = new Vec3(
-                entity.getX() - this.getX(),
-                entity.getY() - this.getY(),
-                entity.getZ() - this.getZ());
-
-        // Normalize vectors
-        Vec3 stalkerToPlayerNormalized = stalkerToPlayer.normalize();
-        Vec3 stalkerToEntityNormalized = stalkerToEntity.normalize();
-
-        // Calculate dot product to determine angle
-        double dotProduct = stalkerToPlayerNormalized.x * stalkerToEntityNormalized.x +
-                stalkerToPlayerNormalized.y * stalkerToEntityNormalized.y +
-                stalkerToPlayerNormalized.z * stalkerToEntityNormalized.z;
-
-        // Entity is in path if dot product is high (angle is small) and distance is
-        // small
-        return dotProduct > 0.7 && this.distanceTo(entity) < 5.0;
+        this.targetSelector.addGoal(COLLISION_ENTITY_PRIORITY, new StalkerObstacleTargetGoal(this));
     }
 
     /**
      * aiStep method with respawn logic and cooldowns, called once per tick.
+     * Periodic checks run from the scheduler (see the constructor).
      */
     @Override
     public void aiStep() {
@@ -212,95 +236,161 @@ public class StalkerEntity extends PathfinderMob {
 
         long worldTime = this.level.getGameTime();
 
-        // Update the primary target (player) more frequently
-        if (primaryTarget == null || !primaryTarget.isAlive() || worldTime % 40 == 0) {
-            updatePrimaryTarget();
-            // Immediately set as target to maintain focus
-            if (primaryTarget != null) {
-                this.setTarget(primaryTarget);
-            }
+        // Keep our bucket in the level's spatial index current
+        if (this.level instanceof ServerLevel serverLevel) {
+            StalkerSpatialIndex.get(serverLevel).updateStalker(this);
         }
 
-        // Check if we're stuck with cooldown (once per 3 seconds)
-        if (worldTime % 60 == 0) {
-            boolean currentlyStuck = isStuck();
+        // Lost the target, don't wait for the next scheduled refresh
+        if (primaryTarget == null || !primaryTarget.isAlive()) {
+            refreshPrimaryTarget();
+        }
 
-            // If we've been stuck for several checks, trigger respawn  
-            if (currentlyStuck) {
-                stuckCounter++;
-                if (stuckCounter >= 3 && worldTime - lastRespawnTime >= 100) { // 5 seconds between respawn attempts
-                    if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It Follows] Stuck for too long, respawning");
-                    this.respawnNearby();
-                    lastRespawnTime = worldTime;
-                    stuckCounter = 0;
-                }
-            } else {
-                stuckCounter = 0;
-            }
+        scheduler.tick(getDetailMultiplier());
+        if (!this.level.isClientSide) {
+            pathObstacles.tick();
+            tunnel.tick(primaryTarget);
         }
 
         // Day cycle respawn (every 20 minutes) - in other words, if I'm not stuck,
         // respawn every 20 minutes.
         if (worldTime - lastRespawnTime >= 24000) {
-            if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It Follows] Day cycle respawn triggered");
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Day cycle respawn triggered");
             this.respawnNearby();
             lastRespawnTime = worldTime;
         }
 
-        this.breakBlocksInPath();
-        if (ModConfig.STALKER_PREVENT_SLEEP.get())
-            this.wakeSleepingPlayers();
-        if (ModConfig.ENABLE_PROXIMITY_SOUNDS.get())
-            this.playSound();
-        this.checkPlayerDistanceAndRespawn();
-
         // Attack entities in the path to player without changing primary target
         this.attackEntitiesInPath();
 
-        // Always ensure player is the primary target unless temporarily distracted
+        // Return to the player right away when they're close, otherwise refocusPrimaryTarget does it
+        if (this.getTarget() != primaryTarget && primaryTarget != null && primaryTarget.isAlive()
+                && this.distanceToSqr(primaryTarget) < 25.0) {
+            this.setTarget(primaryTarget);
+        }
+    }
+
+    /**
+     * Gets how much to stretch the scheduler's scalable intervals: 1 near the
+     * target, 2 at mid range, 4 when far away or without a target.
+     */
+    private int getDetailMultiplier() {
+        if (primaryTarget == null)
+            return 4;
+
+        double distanceSqr = this.distanceToSqr(primaryTarget);
+        if (distanceSqr < FULL_DETAIL_DISTANCE_SQR)
+            return 1;
+        return distanceSqr < HALF_DETAIL_DISTANCE_SQR ? 2 : 4;
+    }
+
+    /**
+     * Updates the primary target (player) and immediately focuses on it.
+     */
+    private void refreshPrimaryTarget() {
+        updatePrimaryTarget();
+        // Immediately set as target to maintain focus
+        if (primaryTarget != null) {
+            this.setTarget(primaryTarget);
+        }
+    }
+
+    /**
+     * Always ensure player is the primary target unless temporarily distracted.
+     */
+    private void refocusPrimaryTarget() {
         if (this.getTarget() != primaryTarget && primaryTarget != null && primaryTarget.isAlive()) {
-            // Check if we should return to targeting the player
-            if (worldTime % 20 == 0 || this.distanceTo(primaryTarget) < 5.0) {
-                this.setTarget(primaryTarget);
+            this.setTarget(primaryTarget);
+        }
+    }
+
+    /**
+     * Checks if we're stuck; if we've been stuck for several checks, triggers a
+     * respawn.
+     */
+    private void checkStuck() {
+        long worldTime = this.level.getGameTime();
+        boolean currentlyStuck = isStuck();
+
+        if (currentlyStuck) {
+            stuckCounter++;
+            if (stuckCounter >= 3 && worldTime - lastRespawnTime >= 100) { // 5 seconds between respawn attempts
+                if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Stuck for too long, respawning");
+                this.respawnNearby();
+                lastRespawnTime = worldTime;
+                stuckCounter = 0;
             }
+        } else {
+            stuckCounter = 0;
         }
     }
 
     /**
      * Check if the entity is in water/lava and adjust the speed accordingly (move
-     * faster). Also adds a minor speed booost if the player is close.
+     * faster). Also adds a minor speed booost if the player is close. The boost
+     * is a transient modifier that only changes when the speed tier does, so
+     * the attribute isn't marked dirty (and re-sent to clients) every tick.
      * 
      * @param travelVector The travel vector.
      */
     @Override
     public void travel(Vec3 travelVector) {
-        boolean inLiquid = this.isInWater() || this.isInLava();
-        double baseSpeed = ModConfig.STALKER_MOVEMENT_SPEED.get();
-        double adjustedSpeed = baseSpeed;
+        if (!this.level.isClientSide) {
+            updateSpeedTier();
+        }
+
+        // Proceed with normal travel logic
+        super.travel(travelVector);
+    }
 
-        if (inLiquid) {
+    /**
+     * Picks the speed tier for this tick and swaps the speed modifier if it
+     * changed. Leaving a proximity tier takes a couple of blocks more than
+     * entering it, so a player walking along a boundary doesn't make the tier
+     * flip back and forth.
+     */
+    private void updateSpeedTier() {
+        AttributeInstance movementSpeed = this.getAttribute(Attributes.MOVEMENT_SPEED);
+        if (movementSpeed == null)
+            return;
+
+        // Follow config reloads, only touching the base when it actually differs
+        double baseSpeed = ModConfig.current().stalkerMovementSpeed;
+        if (movementSpeed.getBaseValue() != baseSpeed) {
+            movementSpeed.setBaseValue(baseSpeed);
+        }
+
+        SpeedTier tier;
+        if (this.isInWater() || this.isInLava()) {
             // Double speed when stalking through water or lava—because nothing is more
             // terrifying than a wet Stalker
-            adjustedSpeed = baseSpeed * 2.0;
-        } else {
+            tier = SpeedTier.LIQUID;
+        } else if (primaryTarget != null && primaryTarget.isAlive()) {
             // Adjust speed based on proximity to the player
-            if (primaryTarget != null && primaryTarget.isAlive()) {
-                double distance = this.distanceTo(primaryTarget);
-
-                if (distance <= 15.0) {
-                    adjustedSpeed = baseSpeed * 1.3; // 30% faster when right behind you—boo!
-                } else if (distance <= 30.0) {
-                    adjustedSpeed = baseSpeed * 1.2; // 20% faster when getting closer
-                }
-                // Else, keep base speed—no rush, it has eternity
+            double distanceSqr = this.distanceToSqr(primaryTarget);
+            boolean wasClose = speedTier == SpeedTier.CLOSE;
+            boolean wasNear = wasClose || speedTier == SpeedTier.NEAR;
+
+            if (distanceSqr <= (wasClose ? CLOSE_EXIT_DISTANCE_SQR : CLOSE_ENTER_DISTANCE_SQR)) {
+                tier = SpeedTier.CLOSE; // 30% faster when right behind you—boo!
+            } else if (distanceSqr <= (wasNear ? NEAR_EXIT_DISTANCE_SQR : NEAR_ENTER_DISTANCE_SQR)) {
+                tier = SpeedTier.NEAR; // 20% faster when getting closer
+            } else {
+                tier = SpeedTier.BASE; // No rush, it has eternity
             }
+        } else {
+            tier = SpeedTier.BASE;
         }
 
-        // Apply the speed value to the entity
-        this.getAttribute(Attributes.MOVEMENT_SPEED).setBaseValue(adjustedSpeed);
+        if (tier == speedTier)
+            return;
 
-        // Proceed with normal travel logic
-        super.travel(travelVector);
+        movementSpeed.removeModifier(SPEED_TIER_MODIFIER_ID);
+        if (tier.bonus != 0.0) {
+            movementSpeed.addTransientModifier(new AttributeModifier(SPEED_TIER_MODIFIER_ID,
+                    "Stalker speed tier", tier.bonus, AttributeModifier.Operation.MULTIPLY_BASE));
+        }
+        speedTier = tier;
     }
 
     /**
@@ -310,40 +400,20 @@ public class StalkerEntity extends PathfinderMob {
         if (primaryTarget == null)
             return;
 
-        // Find entities in a narrow cone in front of the stalker toward the player
-        List<LivingEntity> entitiesInPath = this.level.getEntitiesOfClass(
-                LivingEntity.class,
-                this.getBoundingBox().inflate(COLLISION_ATTACK_RADIUS, COLLISION_ATTACK_RADIUS,
-                        COLLISION_ATTACK_RADIUS),
-                entity -> entity != this &&
-                        entity != primaryTarget &&
-                        entity.isAlive() &&
-                        isEntityInPathToPlayer(entity));
+        // Find the closest entity in a narrow cone in front of the stalker toward the player
+        LivingEntity closest = pathCone.findClosest(primaryTarget, COLLISION_ATTACK_RADIUS);
 
         // Attack the closest entity in path without changing primary target
-        if (!entitiesInPath.isEmpty()) {
-            LivingEntity closest = null;
-            double closestDist = Double.MAX_VALUE;
-
-            for (LivingEntity entity : entitiesInPath) {
-                double dist = this.distanceToSqr(entity);
-                if (dist < closestDist) {
-                    closest = entity;
-                    closestDist = dist;
-                }
-            }
-
-            if (closest != null && this.distanceTo(closest) < COLLISION_ATTACK_RADIUS) {
-                // Attack without changing target
-                this.doHurtTarget(closest);
-
-                // Very briefly change target but quickly return to player
-                if (random.nextInt(5) == 0) { // Only 20% chance to temporarily switch targets
-                    // LivingEntity previousTarget = this.getTarget();
-                    this.setTarget(closest);
-                    // Reset back to previous target soon
-                    this.targetResetTime = this.level.getGameTime() + 20; // Reset after 1 second
-                }
+        if (closest != null) {
+            // Attack without changing target
+            this.doHurtTarget(closest);
+
+            // Very briefly change target but quickly return to player
+            if (random.nextInt(5) == 0) { // Only 20% chance to temporarily switch targets
+                // LivingEntity previousTarget = this.getTarget();
+                this.setTarget(closest);
+                // Reset back to previous target soon
+                this.targetResetTime = this.level.getGameTime() + 20; // Reset after 1 second
             }
         }
     }
@@ -352,40 +422,140 @@ public class StalkerEntity extends PathfinderMob {
      * Update the primary target (always a player)
      */
     private void updatePrimaryTarget() {
-        Player nearest = this.level.getNearestPlayer(this, 512.0); // Get the nearest player within 512 blocks
+        Player nearest = getHuntedPlayer(512.0); // Get the nearest player within 512 blocks, or our owner
         if (nearest != null) {
             primaryTarget = nearest;
+            RespawnPlanner.track(nearest); // Keep a respawn position ready near them
+        } else if (ModConfig.current().perPlayerStalkers) {
+            primaryTarget = null; // Our player isn't here, wait for them
+        }
+    }
+
+    /**
+     * Gets the player this Stalker is after. In per-player mode that's always
+     * its owner (binding to the nearest unclaimed player if it has none yet),
+     * otherwise the nearest player.
+     *
+     * @param maxDistance Range for the nearest-player lookup.
+     * @return The player, or null if there is none to follow.
+     */
+    private Player getHuntedPlayer(double maxDistance) {
+        if (!(this.level instanceof ServerLevel serverLevel))
+            return this.level.getNearestPlayer(this, maxDistance);
+
+        StalkerSpatialIndex index = StalkerSpatialIndex.get(serverLevel);
+        if (!ModConfig.current().perPlayerStalkers)
+            return index.nearestPlayer(this, maxDistance);
+
+        StalkerRegistry registry = StalkerRegistry.get(serverLevel);
+        if (ownerId == null) {
+            Player unclaimed = index.nearestPlayer(this, maxDistance,
+                    player -> registry.getStalkerFor(player.getUUID()) == null);
+            if (unclaimed == null)
+                return null;
+            ownerId = unclaimed.getUUID();
+            registry.register(this);
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Stalker bound to player {}", unclaimed.getName().getString());
         }
+
+        Entity owner = serverLevel.getEntity(ownerId);
+        return owner instanceof Player player && !player.isSpectator() ? player : null;
+    }
+
+    /**
+     * Gets the player this Stalker is bound to in per-player mode.
+     *
+     * @return The owner's UUID, or null if unbound.
+     */
+    public UUID getOwnerId() {
+        return ownerId;
+    }
+
+    /**
+     * Gets the player this Stalker is after: its owner in per-player mode,
+     * otherwise its current target, or the one it was after when it replaced
+     * an unloaded Stalker or was last saved.
+     *
+     * @return The player's UUID, or null if it isn't after anyone.
+     */
+    public UUID getPursuitTargetId() {
+        if (ownerId != null)
+            return ownerId;
+        return primaryTarget != null ? primaryTarget.getUUID() : handedOverTarget;
+    }
+
+    /**
+     * Sets the player this Stalker is after until it picks a target itself,
+     * so a replacement that unloads before its first tick keeps pursuing.
+     *
+     * @param playerId The player's UUID, may be null.
+     */
+    public void setPursuitTargetId(UUID playerId) {
+        this.handedOverTarget = playerId;
+    }
+
+    /**
+     * Binds this Stalker to a player for per-player mode.
+     *
+     * @param ownerId The owner's UUID.
+     */
+    public void setOwnerId(UUID ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    @Override
+    public void addAdditionalSaveData(CompoundTag tag) {
+        super.addAdditionalSaveData(tag);
+        if (ownerId != null)
+            tag.putUUID("Owner", ownerId);
+        if (getPursuitTargetId() != null)
+            tag.putUUID("PursuitTarget", getPursuitTargetId());
+    }
+
+    @Override
+    public void readAdditionalSaveData(CompoundTag tag) {
+        super.readAdditionalSaveData(tag);
+        if (tag.hasUUID("Owner"))
+            ownerId = tag.getUUID("Owner");
+        if (tag.hasUUID("PursuitTarget"))
+            handedOverTarget = tag.getUUID("PursuitTarget");
     }
 
     /**
-     * Remove duplicate entities from the world.
+     * Remove duplicate entities from the world. The level's StalkerRegistry
+     * knows every Stalker and which one is the oldest, so only the loaded
+     * duplicates need to be touched.
      */
     private void removeDuplicateEntities() {
         if (this.level.isClientSide) return; // Only run on server side
     
         ServerLevel serverLevel = (ServerLevel) this.level;
+        StalkerRegistry registry = StalkerRegistry.get(serverLevel);
+        if (registry.isRetired(this.getUUID())) {
+            // Another entity took over while this one was unloaded
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Removing replaced Stalker with UUID: {}", this.getUUID());
+            registry.remove(this.getUUID());
+            this.discard();
+            return;
+        }
+        registry.register(this);
     
-        List<StalkerEntity> allStalkers = serverLevel.getEntitiesOfClass(
-            StalkerEntity.class,
-            new AABB(
-                serverLevel.getMinBuildHeight(), 0, serverLevel.getMinBuildHeight(),
-                serverLevel.getMaxBuildHeight(), 256, serverLevel.getMaxBuildHeight())
-        );
-    
-        if (allStalkers.size() <= 1) return;
-    
-        allStalkers.sort(Comparator.comparingInt(Entity::getId));
-        StalkerEntity oldest = allStalkers.get(0);
+        if (registry.size() <= 1) return;
     
-        for (int i = 1; i < allStalkers.size(); i++) {
-            StalkerEntity duplicate = allStalkers.get(i);
-            if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It FOllows] Removing duplicate Stalker with ID: {}", duplicate.getId());
-            duplicate.discard();
+        // In per-player mode only Stalkers bound to the same player are duplicates
+        List<UUID> duplicates = registry.getDuplicates(ModConfig.current().perPlayerStalkers);
+        if (duplicates.contains(this.getUUID())) {
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It FOllows] Removing duplicate Stalker with UUID: {}", this.getUUID());
+            this.discard();
+            return;
         }
     
-        if (this != oldest) {
-            this.discard();
+        for (UUID id : duplicates) {
+            Entity duplicate = serverLevel.getEntity(id);
+            if (duplicate != null) {
+                if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It FOllows] Removing duplicate Stalker with UUID: {}", id);
+                duplicate.discard();
+            }
         }
     }
     
@@ -408,7 +578,7 @@ public class StalkerEntity extends PathfinderMob {
      * @return The entity's invincibility status.
      */
     public boolean isInvincible() {
-        return ModConfig.STALKER_IS_INVINCIBLE.get();
+        return ModConfig.current().stalkerIsInvincible;
     }
 
     /**
@@ -433,7 +603,7 @@ public class StalkerEntity extends PathfinderMob {
         if (this.isInvincible()) {
 
             // Play sound regardless of damage source - if configured to play sounds.
-            if (ModConfig.ENABLE_DAMAGE_SOUNDS.get()) {
+            if (ModConfig.current().enableDamageSounds) {
                 this.level.playSound(null, this.getX(), this.getY(), this.getZ(),
                         ModSounds.VIOLINS.get(),
                         this.getSoundSource(), // Entity sound source
@@ -455,7 +625,7 @@ public class StalkerEntity extends PathfinderMob {
 
         if (hurt) {
             // Play sound
-            if (ModConfig.ENABLE_DAMAGE_SOUNDS.get()) {
+            if (ModConfig.current().enableDamageSounds) {
                 this.level.playSound(null, this.getX(), this.getY(), this.getZ(),
                         ModSounds.VIOLINS.get(),
                         this.getSoundSource(),
@@ -483,11 +653,11 @@ public class StalkerEntity extends PathfinderMob {
     @Override
     public boolean doHurtTarget(Entity target) {
         if (target instanceof LivingEntity) {
-            double damage = ModConfig.STALKER_ATTACK_DAMAGE.get();
+            double damage = ModConfig.current().stalkerAttackDamage;
             boolean success = target.hurt(DamageSource.mobAttack(this), (float) damage);
             if (success) {
                 // Play attack sound
-                if (ModConfig.ENABLE_ATTACK_SOUNDS.get()) {
+                if (ModConfig.current().enableAttackSounds) {
                     this.level.playSound(null, this.getX(), this.getY(), this.getZ(),
                             ModSounds.ELECTRIC_ROAR.get(),
                             this.getSoundSource(), // Entity sound source
@@ -499,7 +669,7 @@ public class StalkerEntity extends PathfinderMob {
                     this.targetResetTime = this.level.getGameTime() + 20; // Reset after 1 second
                 }
             }
-            if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It Follows] Attacked target for {} damage.", damage);
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Attacked target for {} damage.", damage);
             return success;
         }
         return super.doHurtTarget(target);
@@ -525,11 +695,23 @@ public class StalkerEntity extends PathfinderMob {
      * path.
      */
     private class StalkerFollowGoal extends Goal {
+        private static final double REUSE_DRIFT_SQR = 2.0 * 2.0; // Player this close to the path's goal: keep the path
+        private static final double REPAIR_DRIFT_SQR = 8.0 * 8.0; // This close: extend the path instead of replanning
+        private static final int MAX_REPAIRS = 4; // Replan from scratch after this many repairs in a row
+        private static final double OFF_PATH_DISTANCE_SQR = 4.0 * 4.0; // Farther than this from the next node: path is useless
+        private static final double LONG_RANGE_SQR = 48.0 * 48.0; // Farther than this: follow a section route instead
+        private static final double DIRECT_AIM_SQR = 8.0 * 8.0; // Closer than this: aim at the player, not ahead of them
         private final StalkerEntity stalker;
+        private final LongRangeRoute route = new LongRangeRoute();
+        private final AsyncPathPlanner asyncPlanner;
+        private final TargetPredictor predictor = new TargetPredictor();
         private int pathRecalculationDelay = 0;
+        private Player pathTarget = null; // The player the current path was planned for
+        private int repairs = 0;
 
         public StalkerFollowGoal(StalkerEntity stalker) {
             this.stalker = stalker;
+            this.asyncPlanner = new AsyncPathPlanner(stalker);
             this.setFlags(EnumSet.of(Goal.Flag.MOVE, Goal.Flag.LOOK));
         }
 
@@ -543,6 +725,13 @@ public class StalkerEntity extends PathfinderMob {
             // Set the primary target (player)
             stalker.setTarget(primaryTarget);
             pathRecalculationDelay = 0;
+            pathTarget = null;
+            asyncPlanner.cancel();
+        }
+
+        @Override
+        public void stop() {
+            asyncPlanner.cancel();
         }
 
         @Override
@@ -550,6 +739,10 @@ public class StalkerEntity extends PathfinderMob {
             if (primaryTarget == null || !primaryTarget.isAlive())
                 return;
 
+            // Pick up a path searched off-thread, if one finished
+            asyncPlanner.poll();
+            predictor.record(primaryTarget, stalker.level.getGameTime());
+
             // Focus on player by looking at them
             stalker.getLookControl().setLookAt(primaryTarget, 30.0F, 30.0F);
 
@@ -567,10 +760,13 @@ public class StalkerEntity extends PathfinderMob {
                 distractionCounter = 0;
             }
 
-            // Recalculate path to player more frequently to improve navigation
-            if (--pathRecalculationDelay <= 0) {
-                pathRecalculationDelay = 10; // Recalculate every half second
-                stalker.getNavigation().moveTo(primaryTarget, stalker.getAttributeValue(Attributes.MOVEMENT_SPEED));
+            // Walk down the player's shared flow field if we're in it; otherwise
+            // check the path to the player every half second, replanning only when needed
+            if (ModConfig.current().enableFlowFieldNavigation && followFlowField()) {
+                pathRecalculationDelay = 0; // Path at once if we leave the field
+            } else if (--pathRecalculationDelay <= 0) {
+                pathRecalculationDelay = 10;
+                updatePath();
             }
 
             // Attack if close to player
@@ -578,6 +774,227 @@ public class StalkerEntity extends PathfinderMob {
                 stalker.doHurtTarget(primaryTarget);
             }
         }
+
+        /**
+         * Keeps the current path while the player stays near where it leads,
+         * splices a short straight extension onto it when they've moved a few
+         * blocks, and only runs a full path search when the path is gone, was
+         * planned for someone else, or the player moved too far.
+         */
+        private void updatePath() {
+            PathNavigation navigation = stalker.getNavigation();
+            double speed = stalker.getAttributeValue(Attributes.MOVEMENT_SPEED);
+            Path path = navigation.getPath();
+
+            if (asyncPlanner.isPending())
+                return; // Keep the current path until the search finishes
+
+            if (stalker.distanceToSqr(primaryTarget) > LONG_RANGE_SQR && followRoute(navigation, path, speed))
+                return;
+
+            if (path == null || path.isDone() || pathTarget != primaryTarget || isOffPath(path)) {
+                replan(navigation, speed);
+                return;
+            }
+
+            BlockPos targetPos = getAimPos(speed);
+            double drift = path.getTarget().distSqr(targetPos);
+            if (drift <= REUSE_DRIFT_SQR)
+                return; // Still good
+
+            if (drift <= REPAIR_DRIFT_SQR && path.canReach() && repairs < MAX_REPAIRS) {
+                Path repaired = repairPath(path, targetPos);
+                if (repaired != null && navigation.moveTo(repaired, speed)) {
+                    repairs++;
+                    return;
+                }
+            }
+
+            replan(navigation, speed);
+        }
+
+        /**
+         * Far from the player, walks to the next waypoint of the section
+         * route rather than planning a vanilla path all the way, which gives
+         * up at the follow range and leaves the Stalker standing still until
+         * isStuck respawns it.
+         *
+         * @return False if there's no route, to fall back to a direct path.
+         */
+        private boolean followRoute(PathNavigation navigation, Path path, double speed) {
+            if (!(stalker.level instanceof ServerLevel serverLevel))
+                return false;
+
+            BlockPos waypoint = route.nextWaypoint(serverLevel, stalker, primaryTarget);
+            if (waypoint == null)
+                return false;
+
+            if (path == null || path.isDone() || !waypoint.equals(path.getTarget()) || isOffPath(path))
+                moveTo(navigation, waypoint, speed);
+
+            pathTarget = null; // Plan a real path once we're close
+            return true;
+        }
+
+        /**
+         * Steps to the neighboring cell of the player's flow field that is
+         * closer to them, steering the move control directly; no path search.
+         *
+         * @return False if the field isn't ready or doesn't cover the Stalker.
+         */
+        private boolean followFlowField() {
+            if (!(primaryTarget instanceof ServerPlayer player))
+                return false;
+            if (!FlowField.isInRange(player.blockPosition(), stalker.blockPosition()))
+                return false; // Outside any field the player could have, don't start one
+
+            FlowField field = FlowFieldManager.get(player);
+            BlockPos next = field.next(stalker.blockPosition());
+            if (next == null)
+                return false;
+
+            if (!stalker.getNavigation().isDone())
+                stalker.getNavigation().stop();
+            asyncPlanner.cancel();
+            pathTarget = null;
+            stalker.getMoveControl().setWantedPosition(next.getX() + 0.5, next.getY(), next.getZ() + 0.5,
+                    stalker.getAttributeValue(Attributes.MOVEMENT_SPEED));
+            return true;
+        }
+
+        /**
+         * Starts walking to a block, searching the path on a worker thread
+         * when async pathfinding is enabled.
+         */
+        private void moveTo(PathNavigation navigation, BlockPos target, double speed) {
+            if (ModConfig.current().enableAsyncPathfinding && stalker.level instanceof ServerLevel serverLevel)
+                asyncPlanner.request(serverLevel, target, speed);
+            else
+                navigation.moveTo(target.getX() + 0.5, target.getY(), target.getZ() + 0.5, speed);
+        }
+
+        /**
+         * Gets where paths should lead: the predicted intercept point while the
+         * player is moving and not yet close, else the player's own position.
+         * A player keeping their course keeps the intercept point (about) still,
+         * so the path is reused rather than replanned.
+         */
+        private BlockPos getAimPos(double speed) {
+            if (stalker.distanceToSqr(primaryTarget) < DIRECT_AIM_SQR)
+                return primaryTarget.blockPosition();
+            return predictor.predictIntercept(stalker, VirtualPursuit.getBlocksPerTick(speed));
+        }
+
+        /**
+         * A teleport (respawn, waking a sleeper...) leaves the old path behind.
+         */
+        private boolean isOffPath(Path path) {
+            Node next = path.getNextNode();
+            return stalker.distanceToSqr(next.x + 0.5, next.y, next.z + 0.5) > OFF_PATH_DISTANCE_SQR;
+        }
+
+        private void replan(PathNavigation navigation, double speed) {
+            route.clear();
+            BlockPos aimPos = getAimPos(speed);
+            if (ModConfig.current().enableAsyncPathfinding && stalker.level instanceof ServerLevel serverLevel)
+                asyncPlanner.request(serverLevel, aimPos, speed);
+            else if (aimPos.equals(primaryTarget.blockPosition()))
+                navigation.moveTo(primaryTarget, speed);
+            else
+                navigation.moveTo(aimPos.getX() + 0.5, aimPos.getY(), aimPos.getZ() + 0.5, speed);
+            pathTarget = primaryTarget;
+            repairs = 0;
+        }
+
+        /**
+         * Builds a copy of the rest of the path with a walk from its end node
+         * to the new target position appended. Each step goes one block toward
+         * the target, up or down at most one block, and must be standable.
+         *
+         * @return The repaired path, or null if the straight walk is blocked.
+         */
+        private Path repairPath(Path path, BlockPos targetPos) {
+            if (!(stalker.level instanceof ServerLevel serverLevel))
+                return null;
+
+            List<Node> nodes = new ArrayList<>(path.getNodeCount() - path.getNextNodeIndex() + 8);
+            for (int i = path.getNextNodeIndex(); i < path.getNodeCount(); i++) {
+                nodes.add(path.getNode(i));
+            }
+
+            Node end = path.getEndNode();
+            BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos(end.x, end.y, end.z);
+            while (cursor.getX() != targetPos.getX() || cursor.getZ() != targetPos.getZ()) {
+                int x = cursor.getX() + Integer.signum(targetPos.getX() - cursor.getX());
+                int z = cursor.getZ() + Integer.signum(targetPos.getZ() - cursor.getZ());
+                int y = findStepY(serverLevel, x, cursor.getY(), z, cursor);
+                if (y == Integer.MIN_VALUE)
+                    return null;
+
+                cursor.set(x, y, z);
+                Node node = new Node(x, y, z);
+                node.type = BlockPathTypes.WALKABLE;
+                nodes.add(node);
+            }
+
+            return nodes.isEmpty() ? null : new Path(nodes, targetPos, true);
+        }
+
+        /**
+         * Finds a standable Y for the next column of a repair: level first,
+         * then one up, then one down.
+         *
+         * @return The Y, or Integer.MIN_VALUE if none works.
+         */
+        private int findStepY(ServerLevel world, int x, int y, int z, BlockPos.MutableBlockPos cursor) {
+            for (int dy : REPAIR_STEP_OFFSETS) {
+                if (SpawnLocator.isStillSpawnable(world, cursor.set(x, y + dy, z)))
+                    return y + dy;
+            }
+            return Integer.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Goal to target non-players that are in direct path to the player. Only
+     * looks within COLLISION_ATTACK_RADIUS, through the path cone query that
+     * attackEntitiesInPath uses too, instead of searching the whole follow
+     * range and throwing almost everything away.
+     */
+    private class StalkerObstacleTargetGoal extends TargetGoal {
+        private static final int RANDOM_INTERVAL = 10; // Look about twice a second, like the vanilla goal did
+        private final TargetingConditions conditions = TargetingConditions.forCombat().range(COLLISION_ATTACK_RADIUS);
+        private LivingEntity obstacle = null;
+
+        public StalkerObstacleTargetGoal(StalkerEntity stalker) {
+            super(stalker, true, false);
+            this.setFlags(EnumSet.of(Goal.Flag.TARGET));
+        }
+
+        @Override
+        public boolean canUse() {
+            if (primaryTarget == null || this.mob.getRandom().nextInt(reducedTickDelay(RANDOM_INTERVAL)) != 0)
+                return false;
+
+            LivingEntity closest = pathCone.findClosest(primaryTarget, COLLISION_ATTACK_RADIUS);
+            if (closest == null || closest instanceof Player || !this.canAttack(closest, conditions))
+                return false;
+
+            obstacle = closest;
+            return true;
+        }
+
+        @Override
+        public void start() {
+            this.mob.setTarget(obstacle);
+            super.start();
+        }
+
+        @Override
+        public void stop() {
+            super.stop();
+            obstacle = null;
+        }
     }
 
     /**
@@ -597,18 +1014,9 @@ public class StalkerEntity extends PathfinderMob {
                 return false; // Only open gates if the stalker is actively moving
             }
 
-            BlockPos entityPos = stalker.blockPosition();
-
             // Check nearby blocks for a closed fence gate
-            for (BlockPos pos : BlockPos.betweenClosed(entityPos.offset(-1, 0, -1), entityPos.offset(1, 1, 1))) {
-                BlockState state = stalker.level.getBlockState(pos);
-                if (state.getBlock() instanceof FenceGateBlock && !state.getValue(FenceGateBlock.OPEN)) {
-                    targetGatePos = pos;
-                    return true;
-                }
-            }
-
-            return false;
+            targetGatePos = stalker.obstacles.getClosedGate();
+            return targetGatePos != null;
         }
 
         @Override
@@ -618,6 +1026,7 @@ public class StalkerEntity extends PathfinderMob {
                 if (state.getBlock() instanceof FenceGateBlock) {
                     stalker.level.setBlock(targetGatePos, state.setValue(FenceGateBlock.OPEN, true), 10);
                     stalker.playSound(SoundEvents.FENCE_GATE_OPEN, 1.0F, 1.0F);
+                    stalker.obstacles.invalidate();
                 }
             }
         }
@@ -635,9 +1044,7 @@ public class StalkerEntity extends PathfinderMob {
 
         @Override
         public boolean canUse() {
-            BlockPos pos = stalker.blockPosition();
-            BlockState state = stalker.level.getBlockState(pos);
-            return state.getBlock() instanceof FenceGateBlock && state.getValue(FenceGateBlock.OPEN) == false;
+            return stalker.obstacles.isClosedGateAtFeet();
         }
 
         @Override
@@ -647,7 +1054,8 @@ public class StalkerEntity extends PathfinderMob {
             if (state.getBlock() instanceof FenceGateBlock) {
                 stalker.level.destroyBlock(pos, true);
                 stalker.playSound(SoundEvents.WOOD_BREAK, 1.0F, 1.0F);
-                if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It Follows] Broke a fence gate at {}", pos);
+                stalker.obstacles.invalidate();
+                if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Broke a fence gate at {}", pos);
             }
         }
     }
@@ -665,23 +1073,13 @@ public class StalkerEntity extends PathfinderMob {
 
         @Override
         public boolean canUse() {
-            if (stalker.getNavigation().isDone()) {
-                return false; // Only open doors if the stalker is actively moving
+            if (stalker.getNavigation().isDone() || stalker.pathObstacles.hasPath()) {
+                return false; // Only open doors if the stalker is actively moving, and the path planner isn't on it
             }
 
-            BlockPos entityPos = stalker.blockPosition();
-
             // Check nearby blocks for a closed door
-            for (BlockPos pos : BlockPos.betweenClosed(entityPos.offset(-1, 0, -1), entityPos.offset(1, 1, 1))) {
-                BlockState state = stalker.level.getBlockState(pos);
-                if (state.getBlock() instanceof net.minecraft.world.level.block.DoorBlock
-                        && !state.getValue(net.minecraft.world.level.block.DoorBlock.OPEN)) {
-                    targetDoorPos = pos;
-                    return true;
-                }
-            }
-
-            return false;
+            targetDoorPos = stalker.obstacles.getClosedDoor();
+            return targetDoorPos != null;
         }
 
         @Override
@@ -692,6 +1090,7 @@ public class StalkerEntity extends PathfinderMob {
                     stalker.level.setBlock(targetDoorPos,
                             state.setValue(net.minecraft.world.level.block.DoorBlock.OPEN, true), 10);
                     stalker.playSound(SoundEvents.FENCE_GATE_OPEN, 1.0F, 1.0F);
+                    stalker.obstacles.invalidate();
                 }
             }
         }
@@ -711,37 +1110,26 @@ public class StalkerEntity extends PathfinderMob {
 
         @Override
         public boolean canUse() {
-            BlockPos entityPos = stalker.blockPosition();
-            long currentTime = stalker.level.getGameTime();
-
             // Check the block the entity is in and adjacent blocks
-            for (BlockPos pos : BlockPos.betweenClosed(entityPos.offset(-1, 0, -1), entityPos.offset(1, 1, 1))) {
-                BlockState state = stalker.level.getBlockState(pos);
-                if (state.getBlock() instanceof net.minecraft.world.level.block.DoorBlock &&
-                        !state.getValue(net.minecraft.world.level.block.DoorBlock.OPEN) &&
-                        currentTime - lastBreakAttempt > BREAK_COOLDOWN) {
-                    return true;
-                }
-            }
-
-            return false;
+            return stalker.level.getGameTime() - lastBreakAttempt > BREAK_COOLDOWN
+                    && !stalker.pathObstacles.hasPath() // Doors on the path are handled ahead of time
+                    && stalker.obstacles.getClosedDoor() != null;
         }
 
         @Override
         public void start() {
-            BlockPos entityPos = stalker.blockPosition();
+            BlockPos pos = stalker.obstacles.getClosedDoor();
+            if (pos == null)
+                return;
 
-            // Check the block the entity is in and adjacent blocks
-            for (BlockPos pos : BlockPos.betweenClosed(entityPos.offset(-1, 0, -1), entityPos.offset(1, 1, 1))) {
-                BlockState state = stalker.level.getBlockState(pos);
-                if (state.getBlock() instanceof net.minecraft.world.level.block.DoorBlock &&
-                        !state.getValue(net.minecraft.world.level.block.DoorBlock.OPEN)) {
-                    stalker.level.destroyBlock(pos, true);
-                    stalker.playSound(SoundEvents.WOOD_BREAK, 1.0F, 1.0F);
-                    if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It Follows] Broke a door at {}", pos);
-                    lastBreakAttempt = stalker.level.getGameTime();
-                    break;
-                }
+            BlockState state = stalker.level.getBlockState(pos);
+            if (state.getBlock() instanceof net.minecraft.world.level.block.DoorBlock &&
+                    !state.getValue(net.minecraft.world.level.block.DoorBlock.OPEN)) {
+                stalker.level.destroyBlock(pos, true);
+                stalker.playSound(SoundEvents.WOOD_BREAK, 1.0F, 1.0F);
+                stalker.obstacles.invalidate();
+                if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Broke a door at {}", pos);
+                lastBreakAttempt = stalker.level.getGameTime();
             }
         }
     }
@@ -750,32 +1138,32 @@ public class StalkerEntity extends PathfinderMob {
      * Plays a creepy sound near the entity.
      */
     private void playSound() {
-        if (!ModConfig.ENABLE_PROXIMITY_SOUNDS.get())
+        if (!ModConfig.current().enableProximitySounds)
             return;
 
+        if (!(this.level instanceof ServerLevel serverLevel))
+            return; // Sounds are sent from the server
+
         long currentTime = this.level.getGameTime();
         if (currentTime - lastSoundPlayTime < SOUND_COOLDOWN + random.nextInt(200))
             return; // Randomized delay
 
-        for (Player player : this.level.players()) {
-            double distance = this.distanceTo(player);
-
-            if (distance < SOUND_TRIGGER_DISTANCE) {
-                this.level.playSound(null, this.getX(), this.getY(), this.getZ(),
-                        ModSounds.VIOLINS.get(),
-                        this.getSoundSource(), // Entity sound source
-                        0.5F, // Volume
-                        1.0F); // Pitch
-
-                this.level.playSound(null, this.getX(), this.getY(), this.getZ(),
-                        ModSounds.WHISPERS_001.get(),
-                        this.getSoundSource(), // Entity sound source
-                        1.0F, // Volume
-                        1.0F); // Pitch
-
-                if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It Follows] Playing sound");
-                break; // Play sound for only one player at a time
-            }
+        // Play sound for only one player at a time, so any player close enough will do
+        Player listener = StalkerSpatialIndex.get(serverLevel).nearestPlayer(this, SOUND_TRIGGER_DISTANCE);
+        if (listener != null) {
+            this.level.playSound(null, this.getX(), this.getY(), this.getZ(),
+                    ModSounds.VIOLINS.get(),
+                    this.getSoundSource(), // Entity sound source
+                    0.5F, // Volume
+                    1.0F); // Pitch
+
+            this.level.playSound(null, this.getX(), this.getY(), this.getZ(),
+                    ModSounds.WHISPERS_001.get(),
+                    this.getSoundSource(), // Entity sound source
+                    1.0F, // Volume
+                    1.0F); // Pitch
+
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Playing sound");
         }
 
         lastSoundPlayTime = currentTime;
@@ -790,15 +1178,17 @@ public class StalkerEntity extends PathfinderMob {
         }
 
         ServerLevel serverWorld = (ServerLevel) this.level;
+        ConfigSnapshot config = ModConfig.current();
 
-        for (Player player : this.level.players()) {
-            if (player.isSleeping() && this.distanceTo(player) < ModConfig.STALKER_WAKING_DISTANCE.get()) {
-                if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It Follows] wakeSleepingPlayers: Waking player.");
+        // Only players in the buckets around us can be close enough
+        StalkerSpatialIndex.get(serverWorld).forEachPlayerNear(this.getX(), this.getZ(), config.stalkerWakingDistance, player -> {
+            if (player.isSleeping() && this.distanceToSqr(player) < config.stalkerWakingDistanceSqr) {
+                if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] wakeSleepingPlayers: Waking player.");
                 player.stopSleeping();
                 player.displayClientMessage(Component.literal("You can't sleep, something approaches..."), true);
                 attemptTeleportNearPlayer(serverWorld);
             }
-        }
+        });
     }
 
     /**
@@ -808,22 +1198,22 @@ public class StalkerEntity extends PathfinderMob {
      * @param serverWorld The server world.
      */
     private void attemptTeleportNearPlayer(ServerLevel serverWorld) {
-        Player nearestPlayer = serverWorld.getNearestPlayer(this, 512.0);
+        Player nearestPlayer = getHuntedPlayer(512.0);
 
         if (nearestPlayer == null) {
-            if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It Follows] No nearby player found for teleportation.");
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] No nearby player found for teleportation.");
             return;
         }
 
         // boolean shouldTeleport = (this.distanceToSqr(nearestPlayer) >
         // ModConfig.MINIMUM_SPAWN_DISTANCE.get()) && (random.nextDouble() < 0.20); //
         // 20% chance
-        boolean shouldTeleport = this.distanceToSqr(nearestPlayer) > ModConfig.MINIMUM_SPAWN_DISTANCE.get();
+        boolean shouldTeleport = this.distanceToSqr(nearestPlayer) > ModConfig.current().minimumSpawnDistanceSqr;
 
 
-        if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It Follows] Teleport check: Distance={}, MinDistance={}, ChanceRoll={}", 
-            this.distanceToSqr(nearestPlayer),
-            ModConfig.MINIMUM_SPAWN_DISTANCE.get(),
+        if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Teleport check: Distance={}, MinDistance={}, ChanceRoll={}", 
+            this.distanceTo(nearestPlayer),
+            ModConfig.current().minimumSpawnDistance,
             shouldTeleport);
 
 
@@ -836,61 +1226,43 @@ public class StalkerEntity extends PathfinderMob {
         if (spawnPos != null) {
             this.teleportTo(spawnPos.getX() + 0.5, spawnPos.getY(), spawnPos.getZ() + 0.5);
         } else {
-            if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It Follows] No valid spawn positions found near player.");
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] No valid spawn positions found near player.");
         }
     }
 
     /**
-     * Breaks blocks in the entity's path.
+     * Breaks the block in front of the entity. Only used while there is no
+     * path to follow (flow field steering, or standing still); along a path,
+     * the PathObstaclePlanner breaks what the path actually goes through.
      */
     private void breakBlocksInPath() {
-        if (this.level.getGameTime() - lastBlockBreakTime < BLOCK_BREAK_COOLDOWN) {
+        if (this.level.getGameTime() - lastBlockBreakTime < BLOCK_BREAK_COOLDOWN || pathObstacles.hasPath()) {
             return;
         }
 
         BlockPos frontPos = this.blockPosition().relative(this.getDirection());
-        BlockState blockState = this.level.getBlockState(frontPos);
-
-        if (isBreakable(blockState)) {
-            this.level.destroyBlock(frontPos, true);
+        if (breakIfBreakable(frontPos)) {
             lastBlockBreakTime = this.level.getGameTime();
         }
     }
 
-    /**
-     * Checks if a block state is breakable by the entity.
-     *
-     * @param state The block state.
-     * @return True if the block is breakable, false otherwise.
-     */
-    private boolean isBreakable(BlockState state) {
-        Block block = state.getBlock();
-        float hardness = state.getDestroySpeed(level, this.blockPosition());
-
-        // First, check if the block is breakable by the entity based on the modconfig value.
-        if (hardness > 0 && hardness < ModConfig.BREAKABLE_BLOCK_HARDNESS.get()) return true;
-
-        // Allow specific block types (thematic breaking)
-        // Always break these thematic "barrier" types
-        if (block instanceof FenceGateBlock ||
-                block instanceof net.minecraft.world.level.block.DoorBlock ||
-                block instanceof net.minecraft.world.level.block.TrapDoorBlock ||
-                block instanceof net.minecraft.world.level.block.WallBlock) {
-            return true;
-        }
+    private boolean breakIfBreakable(BlockPos pos) {
+        BlockState blockState = this.level.getBlockState(pos);
+        if (blockState.isAir() || !BreakabilityTable.isBreakable(blockState))
+            return false;
 
-        // Use ForgeRegistries to get the block's registry path
-        ResourceLocation id = ForgeRegistries.BLOCKS.getKey(block);
-        if (id != null) {
-            String path = id.getPath();
-            if (path.contains("barrier") || path.contains("torch") || path.contains("candle")) {
-                return true;
-            }
-        }
+        return this.level.destroyBlock(pos, true);
+    }
 
-        return false;
+    /**
+     * Gets the shared door and gate scan, so path-driven obstacle handling
+     * can tell it when something was opened or broken.
+     */
+    ObstacleScanner getObstacleScanner() {
+        return obstacles;
     }
 
+
     /**
      * Respawns the entity nearby a player.
      * Uses more direct Minecraft mechanics for reliable spawning.
@@ -900,15 +1272,15 @@ public class StalkerEntity extends PathfinderMob {
             return;
 
         ServerLevel serverWorld = (ServerLevel) this.level;
-        Player nearestPlayer = serverWorld.getNearestPlayer(this, 512.0);
+        Player nearestPlayer = getHuntedPlayer(512.0);
 
         if (nearestPlayer == null) {
-            if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.warn("[It Follows] respawnNearby: No player found nearby. Leaving entity at current location.");
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.warn("[It Follows] respawnNearby: No player found nearby. Leaving entity at current location.");
             return;
         }
 
         // Check for the rare chance to spawn right next to player
-        boolean spawnNearPlayer = (this.distanceToSqr(nearestPlayer) > ModConfig.MINIMUM_SPAWN_DISTANCE.get())
+        boolean spawnNearPlayer = (this.distanceToSqr(nearestPlayer) > ModConfig.current().minimumSpawnDistanceSqr)
                 && (random.nextDouble() < 0.05); // 5% chance to spawn directly next to the player.
         BlockPos spawnPos = null;
 
@@ -916,17 +1288,20 @@ public class StalkerEntity extends PathfinderMob {
             spawnPos = trySpawnAdjacentToPlayer(serverWorld, nearestPlayer);
             if (spawnPos != null) {
                 this.teleportTo(spawnPos.getX() + 0.5, spawnPos.getY(), spawnPos.getZ() + 0.5);
-                if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It Follows] Respawned directly beside player at {}",spawnPos);
+                if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Respawned directly beside player at {}",spawnPos);
                 return;
             }
         }
 
-        // If adjacent spawn failed or wasn't attempted, try normal spawn
-        spawnPos = findSpawnLocationNearPlayer(serverWorld, nearestPlayer);
+        // If adjacent spawn failed or wasn't attempted, use the planned position, or search now
+        spawnPos = RespawnPlanner.take(serverWorld, nearestPlayer);
+        if (spawnPos == null) {
+            spawnPos = findSpawnLocationNearPlayer(serverWorld, nearestPlayer);
+        }
 
         if (spawnPos != null) {
             this.teleportTo(spawnPos.getX() + 0.5, spawnPos.getY(), spawnPos.getZ() + 0.5);
-            if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It Follows] Respawned successfully at {}", spawnPos);
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Respawned successfully at {}", spawnPos);
 
             // Make sure the entity isn't stuck in blocks after teleporting
             if (this.level.getBlockState(this.blockPosition()).getMaterial().isSolid()) {
@@ -937,10 +1312,10 @@ public class StalkerEntity extends PathfinderMob {
                     elevatedPos = elevatedPos.above();
                 }
                 this.teleportTo(elevatedPos.getX() + 0.5, elevatedPos.getY(), elevatedPos.getZ() + 0.5);
-                if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It Follows] Adjusted position upward to {}",elevatedPos);
+                if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Adjusted position upward to {}",elevatedPos);
             }
         } else {
-            if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.warn("[It Follows] Failed to find spawn position - falling back to vanilla spawn placement");
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.warn("[It Follows] Failed to find spawn position - falling back to vanilla spawn placement");
             
             // As a fallback, use vanilla mob spawn logic directly
             vanillaSpawnNearPlayer(serverWorld, nearestPlayer);
@@ -956,174 +1331,65 @@ public class StalkerEntity extends PathfinderMob {
      * @return True if the spawn was successful, false otherwise.
      */
     private void vanillaSpawnNearPlayer(ServerLevel serverWorld, Player player) {
-        int spawnRadius = (int) ModConfig.MAXIMUM_SPAWN_DISTANCE.get();
-        int minDistance = (int) ModConfig.MAXIMUM_SPAWN_DISTANCE.get() / 2; // Minimum distance from player
+        int spawnRadius = ModConfig.current().maximumSpawnDistance;
+        int minDistance = spawnRadius / 2; // Minimum distance from player
         int maxTries = 50;
 
+        // Every sample already lies between minDistance and spawnRadius, no retries needed
+        spawnSampler.reset(random, minDistance, spawnRadius);
+        BlockPos.MutableBlockPos candidatePos = new BlockPos.MutableBlockPos();
+
         for (int attempt = 0; attempt < maxTries; attempt++) {
-            // Get random position within spawn radius
-            int x = player.blockPosition().getX() + random.nextInt(spawnRadius * 2) - spawnRadius;
-            int z = player.blockPosition().getZ() + random.nextInt(spawnRadius * 2) - spawnRadius;
-
-            // Check if it's within the minimum distance
-            BlockPos candidatePos = new BlockPos(x, 0, z);
-            if (candidatePos.distSqr(player.blockPosition()) < minDistance * minDistance) {
-                continue; // Too close to player, try again
-            }
+            spawnSampler.next(player.getX(), player.getZ(), candidatePos);
 
             // Get the top valid position at this x,z coordinate
-            BlockPos spawnPos = getSpawnablePos(serverWorld, candidatePos);
+            BlockPos spawnPos = SpawnLocator.getSpawnablePos(serverWorld, candidatePos);
 
             if (spawnPos != null) {
                 this.teleportTo(spawnPos.getX() + 0.5, spawnPos.getY(), spawnPos.getZ() + 0.5);
-                if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It Follows] Vanilla spawn succeeded at {}", spawnPos);
+                if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Vanilla spawn succeeded at {}", spawnPos);
                 return;
             }
         }
 
-        if (ModConfig.ENABLE_LOGGING.get())  ItFollowsMod.LOGGER.error("[It Follows] All spawn attempts failed - entity willremain at current position");
-    }
-
-    /**
-     * Gets a valid Y position for the given X,Z coordinates.
-     * Tries both surface and cave positions.
-     * 
-     * @param world The world.
-     * @param pos   The X,Z position.
-     * @return A valid spawn position, or null if none found.
-     */
-    private BlockPos getSpawnablePos(ServerLevel world, BlockPos pos) {
-        // First try to get surface position
-        BlockPos surfacePos = getSurfaceSpawnPos(world, pos);
-        if (surfacePos != null)
-            return surfacePos;
-
-        // If surface fails, try cave position
-        return getCaveSpawnPos(world, pos);
-    }
-
-    /**
-     * Gets a surface spawn position.
-     */
-    private BlockPos getSurfaceSpawnPos(ServerLevel world, BlockPos pos) {
-        // Get the top non-leaves position
-        BlockPos surfacePos = world.getHeightmapPos(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, pos);
-
-        // Check that there's a solid block below and space above
-        if (!world.getBlockState(surfacePos.below()).getMaterial().isSolid()) {
-            return null;
-        }
-
-        // Check for liquids
-        if (world.getBlockState(surfacePos).getMaterial().isLiquid()) {
-            return null;
-        }
-
-        // Make sure there's enough headroom (2 blocks)
-        if (world.getBlockState(surfacePos).getMaterial().isSolid() ||
-                world.getBlockState(surfacePos.above()).getMaterial().isSolid()) {
-            return null;
-        }
-
-        return surfacePos;
-    }
-
-    /**
-     * Gets a cave spawn position.
-     * 
-     * @param world The world.
-     * @param pos   The X,Z position.
-     * @return A valid spawn position, or null if none found.
-     */
-    private BlockPos getCaveSpawnPos(ServerLevel world, BlockPos pos) {
-        // Start at surface height minus a bit
-        int startY = world.getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, pos.getX(), pos.getZ()) - 5;
-        int minY = world.getMinBuildHeight() + 5;
-
-        // Search downward for a valid cave position
-        for (int y = startY; y > minY; y--) {
-            BlockPos checkPos = new BlockPos(pos.getX(), y, pos.getZ());
-
-            // Skip if we can see sky here (we want caves)
-            if (world.canSeeSky(checkPos))
-                continue;
-
-            // Need a solid block below
-            BlockPos below = checkPos.below();
-            if (!world.getBlockState(below).getMaterial().isSolid())
-                continue;
-
-            // Check that the space is free
-            if (world.getBlockState(checkPos).getMaterial().isSolid())
-                continue;
-            if (world.getBlockState(checkPos.above()).getMaterial().isSolid())
-                continue;
-
-            // Check for liquids
-            if (world.getBlockState(checkPos).getMaterial().isLiquid())
-                continue;
-            if (world.getBlockState(below).getMaterial().isLiquid())
-                continue;
-
-            // Found a good spot!
-            return checkPos;
-        }
-
-        return null;
+        if (ModConfig.current().enableLogging)  ItFollowsMod.LOGGER.error("[It Follows] All spawn attempts failed - entity willremain at current position");
     }
 
     /**
      * Find a spawn location near a player.
-     * Divides the area into chunks and samples chunks for valid positions.
+     * Probes columns spread evenly over the ring between the minimum and
+     * maximum spawn distance. Positions the player can't be reached from
+     * are passed over while reachability validation is on, unless nothing
+     * better turns up; only the first few spawnable ones are checked, since
+     * the RespawnPlanner usually has a checked one ready anyway.
      * 
      * @param world  The world.
      * @param player The player.
      * @return A valid spawn position, or null if none found.
      */
     private BlockPos findSpawnLocationNearPlayer(ServerLevel world, Player player) {
-        int chunkRange = 5; // 5 chunks radius
-        BlockPos playerPos = player.blockPosition();
-
-        // Convert player position to chunk coordinates
-        int playerChunkX = playerPos.getX() >> 4;
-        int playerChunkZ = playerPos.getZ() >> 4;
-
-        // Create a list of all chunk coordinates in range
-        List<ChunkPos> chunkPositions = new ArrayList<>();
-        for (int x = playerChunkX - chunkRange; x <= playerChunkX + chunkRange; x++) {
-            for (int z = playerChunkZ - chunkRange; z <= playerChunkZ + chunkRange; z++) {
-                // Calculate squared distance to ensure we're within a circle
-                int dx = x - playerChunkX;
-                int dz = z - playerChunkZ;
-                if (dx * dx + dz * dz <= chunkRange * chunkRange) {
-                    chunkPositions.add(new ChunkPos(x, z));
-                }
-            }
-        }
+        spawnSampler.resetToSpawnRing(random, world);
+        BlockPos.MutableBlockPos testPos = new BlockPos.MutableBlockPos();
+        boolean validate = ModConfig.current().validateRespawnReachability;
+        BlockPos unvalidated = null; // First spawnable position, if none turns out reachable
+        int checked = 0;
 
-        // Shuffle the list to randomize search order
-        Collections.shuffle(chunkPositions, new Random());
+        // Try up to 100 columns, same budget as the old 10 chunks x 10 columns
+        for (int attempt = 0; attempt < SPAWN_SEARCH_PROBES; attempt++) {
+            spawnSampler.next(player.getX(), player.getZ(), testPos);
+            BlockPos spawnPos = SpawnLocator.getSpawnablePos(world, testPos);
 
-        // Try up to 10 chunks
-        int maxChunksToTry = Math.min(10, chunkPositions.size());
-        for (int i = 0; i < maxChunksToTry; i++) {
-            ChunkPos chunkPos = chunkPositions.get(i);
-
-            // Try 10 random positions within each chunk
-            for (int attempt = 0; attempt < 10; attempt++) {
-                int x = (chunkPos.x << 4) + random.nextInt(16);
-                int z = (chunkPos.z << 4) + random.nextInt(16);
-
-                BlockPos testPos = new BlockPos(x, 0, z);
-                BlockPos spawnPos = getSpawnablePos(world, testPos);
-
-                if (spawnPos != null) {
+            if (spawnPos != null) {
+                if (!validate || ReachabilityCheck.isReachable(world, spawnPos, player.blockPosition()))
                     return spawnPos;
-                }
+                if (unvalidated == null)
+                    unvalidated = spawnPos;
+                if (++checked >= SPAWN_REACHABILITY_CHECKS)
+                    break;
             }
         }
 
-        return null;
+        return unvalidated;
     }
 
     /**
@@ -1134,60 +1400,39 @@ public class StalkerEntity extends PathfinderMob {
      * @return A valid spawn position, or null if none found.
      */
     private BlockPos trySpawnAdjacentToPlayer(ServerLevel world, Player player) {
-        BlockPos playerPos = player.blockPosition();
-        List<BlockPos> adjacentPositions = new ArrayList<>();
-
-        // Add positions in a 5x5 area around player, but not directly on player
-        for (int x = -2; x <= 2; x++) {
-            for (int z = -2; z <= 2; z++) {
-                if (x == 0 && z == 0)
-                    continue; // Skip player's position
-
-                BlockPos pos = playerPos.offset(x, 0, z);
-                BlockPos spawnPos = getSpawnablePos(world, pos);
-
-                if (spawnPos != null) {
-                    adjacentPositions.add(spawnPos);
-                }
-            }
-        }
-
-        if (!adjacentPositions.isEmpty()) {
-            // Pick a random position from valid ones
-            return adjacentPositions.get(random.nextInt(adjacentPositions.size()));
-        }
-
-        return null;
+        // Columns are checked in random order and the first valid one is used
+        return ColumnScanner.findAdjacentSpawnPos(world, player.blockPosition(), random);
     }
 
     /**
      * Check the distance to the player and respawn the entity if too far away.
+     * Runs every 5 seconds from the scheduler.
      */
     private void checkPlayerDistanceAndRespawn() {
         if (this.level.isClientSide)
             return;
 
         long currentTime = this.level.getGameTime();
-        if (currentTime - lastDistanceCheckTime < 100)
-            return; // Only check every 5 seconds
 
-        Player nearestPlayer = this.level.getNearestPlayer(this, 1024.0); // Get the nearest player within range
+        Player nearestPlayer = getHuntedPlayer(1024.0); // Get the nearest player within range, or our owner
         if (nearestPlayer == null)
             return;
 
         double distanceSquared = this.distanceToSqr(nearestPlayer);
 
-        // Generate a random respawn threshold within 10-15 chunks
-        int respawnDistance = ModConfig.MINIMUM_SPAWN_DISTANCE.get() + this.random
-                .nextInt(ModConfig.MAXIMUM_SPAWN_DISTANCE.get() - ModConfig.MINIMUM_SPAWN_DISTANCE.get() + 1);
+        // Respawns land anywhere in the spawn ring, so only trigger outside it,
+        // or a fresh respawn could count as too far away straight away. But
+        // this only runs while we tick, so stay inside the simulation distance
+        // or it could never fire
+        ServerLevel serverLevel = (ServerLevel) this.level;
+        int simulationRadius = serverLevel.getServer().getPlayerList().getSimulationDistance() * 16;
+        int respawnDistance = Math.min(AnnulusSampler.getSpawnRingMax(serverLevel) + RESPAWN_TRIGGER_MARGIN, simulationRadius);
 
         if (distanceSquared > respawnDistance * respawnDistance) {
-            if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.info("[It Follows] Player is {} blocks away, respawning closer", Math.sqrt(distanceSquared));
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Player is {} blocks away, respawning closer", Math.sqrt(distanceSquared));
             this.respawnNearby();
             lastRespawnTime = currentTime;
         }
-
-        lastDistanceCheckTime = currentTime;
     }
 
     /**
@@ -1222,7 +1467,7 @@ public class StalkerEntity extends PathfinderMob {
         boolean stuck = inSolid || navigationStuck || samePosition;
 
         if (stuck && !lastReportedStuck) {
-            if (ModConfig.ENABLE_LOGGING.get()) ItFollowsMod.LOGGER.warn("[It Follows] isStuck: Stalker is stuck at {}", this.blockPosition());
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.warn("[It Follows] isStuck: Stalker is stuck at {}", this.blockPosition());
             lastReportedStuck = true;
         } else if (!stuck) {
             lastReportedStuck = false;
@@ -1239,7 +1484,18 @@ public class StalkerEntity extends PathfinderMob {
 
     @Override
     protected PathNavigation createNavigation(Level world) {
-        return new WallClimberNavigation(this, world);
+        return new StalkerNavigation(this, world);
+    }
+
+    /**
+     * Going through a breakable block costs the configured amount, read live
+     * so a config reload applies to Stalkers already in the world.
+     */
+    @Override
+    public float getPathfindingMalus(BlockPathTypes type) {
+        if (type == BlockPathTypes.BREACH)
+            return (float) ModConfig.current().breakablePathCost;
+        return super.getPathfindingMalus(type);
     }
 
     /**
@@ -0,0 +1,82 @@
+package com.itfollowsmod.entity;
+
+import java.util.Random;
+
+/**
+ * Timer wheel for an entity's periodic work. Every task starts at a random
+ * phase, so Stalkers spawned on the same tick don't all do their expensive
+ * checks together, and tasks marked as scalable run less often the higher the
+ * level of detail multiplier passed to tick() is.
+ *
+ * The wheel counts the entity's own ticks rather than the game time, so a tick
+ * is never skipped and nothing has to be caught up.
+ */
+public class TaskScheduler {
+    private static final int WHEEL_SIZE = 512; // Longest delay a task can get, in ticks
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int MAX_TASKS = 32; // One bit per task in a slot
+
+    private final int[] slots = new int[WHEEL_SIZE];
+    private final Runnable[] tasks = new Runnable[MAX_TASKS];
+    private final int[] intervals = new int[MAX_TASKS];
+    private final boolean[] scalable = new boolean[MAX_TASKS];
+    private final Random random;
+    private int taskCount = 0;
+    private long tick = 0;
+
+    /**
+     * Creates an empty scheduler.
+     *
+     * @param random Source of the tasks' starting phases.
+     */
+    public TaskScheduler(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Adds a task, first run at a random point within its interval.
+     *
+     * @param interval Ticks between runs at full detail.
+     * @param scalable Whether the level of detail multiplier stretches the interval.
+     * @param task     The work to run.
+     */
+    public void add(int interval, boolean scalable, Runnable task) {
+        if (taskCount == MAX_TASKS)
+            throw new IllegalStateException("Too many scheduled tasks");
+
+        int id = taskCount++;
+        tasks[id] = task;
+        intervals[id] = Math.max(interval, 1);
+        this.scalable[id] = scalable;
+        schedule(id, 1 + random.nextInt(intervals[id]));
+    }
+
+    /**
+     * Advances the wheel one tick and runs whatever is due.
+     *
+     * @param detailMultiplier How much to stretch scalable intervals (1 = full rate).
+     */
+    public void tick(int detailMultiplier) {
+        tick++;
+        int slot = (int) (tick & WHEEL_MASK);
+        int due = slots[slot];
+        if (due == 0)
+            return;
+
+        slots[slot] = 0;
+        while (due != 0) {
+            int id = Integer.numberOfTrailingZeros(due);
+            due &= due - 1;
+
+            int delay = scalable[id] ? intervals[id] * detailMultiplier : intervals[id];
+            schedule(id, delay); // Rescheduled first, so a task that throws still runs again
+            tasks[id].run();
+        }
+    }
+
+    private void schedule(int id, int delay) {
+        delay = Math.min(delay, WHEEL_MASK);
+        int slot = (int) ((tick + delay) & WHEEL_MASK);
+        slots[slot] |= 1 << id;
+    }
+}
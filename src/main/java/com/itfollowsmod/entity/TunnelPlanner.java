@@ -0,0 +1,154 @@
+package com.itfollowsmod.entity;
+
+import com.itfollowsmod.ItFollowsMod;
+import com.itfollowsmod.ModConfig;
+import com.itfollowsmod.world.BreakabilityTable;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.pathfinder.Node;
+import net.minecraft.world.level.pathfinder.Path;
+
+/**
+ * Digs the Stalker through walls of breakable blocks in one go. Once it has
+ * been pushing against something for a few ticks, the feet and head blocks
+ * of the next few columns in the direction it means to go (the next path
+ * node, or the player) are worked out at once: all of them if every solid
+ * one is breakable, up to the first column that opens up. The blocks are
+ * then broken a few per tick, as set by tunnelBlocksPerTick, instead of one
+ * block per second while stuck detection and replanning run in circles.
+ */
+public class TunnelPlanner {
+    private static final int BLOCKED_TICKS = 5; // Pushing against a wall this long starts a tunnel
+    private static final int MAX_LENGTH = 3; // Columns ahead a tunnel may go through
+
+    private final StalkerEntity stalker;
+    private final LongArrayFIFOQueue pending = new LongArrayFIFOQueue();
+    private int blockedTicks = 0;
+
+    /**
+     * Creates a planner for one Stalker.
+     *
+     * @param stalker The Stalker that digs.
+     */
+    public TunnelPlanner(StalkerEntity stalker) {
+        this.stalker = stalker;
+    }
+
+    /**
+     * Breaks the next blocks of a planned tunnel, or plans one if the
+     * Stalker has been blocked long enough.
+     *
+     * @param goal Where the Stalker is headed when it has no path, may be null.
+     */
+    public void tick(Entity goal) {
+        int budget = ModConfig.current().tunnelBlocksPerTick;
+        if (budget <= 0) {
+            pending.clear();
+            return;
+        }
+
+        if (!pending.isEmpty()) {
+            breakPending(budget);
+            return;
+        }
+
+        if (!stalker.horizontalCollision) {
+            blockedTicks = 0;
+            return;
+        }
+        if (++blockedTicks < BLOCKED_TICKS) {
+            return;
+        }
+        blockedTicks = 0;
+
+        Direction direction = getHeading(goal);
+        if (direction != null) {
+            plan(direction);
+        }
+    }
+
+    /**
+     * Gets the horizontal direction the Stalker wants to go: toward its next
+     * path node, or toward the goal if it has no path.
+     */
+    private Direction getHeading(Entity goal) {
+        double toX;
+        double toZ;
+        Path path = stalker.getNavigation().getPath();
+        if (path != null && !path.isDone()) {
+            Node next = path.getNextNode();
+            toX = next.x + 0.5;
+            toZ = next.z + 0.5;
+        } else if (goal != null) {
+            toX = goal.getX();
+            toZ = goal.getZ();
+        } else {
+            return null;
+        }
+
+        double dx = toX - stalker.getX();
+        double dz = toZ - stalker.getZ();
+        if (dx * dx + dz * dz < 1.0E-4) {
+            return null;
+        }
+        return Direction.getNearest(dx, 0.0, dz);
+    }
+
+    /**
+     * Queues the solid blocks of the columns ahead. Stops at the first open
+     * column; gives up on the whole tunnel if an unbreakable block is in the
+     * way, since digging partway in helps nobody.
+     */
+    private void plan(Direction direction) {
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        BlockPos start = stalker.blockPosition();
+        LongArrayFIFOQueue planned = new LongArrayFIFOQueue();
+
+        for (int step = 1; step <= MAX_LENGTH; step++) {
+            boolean open = true;
+            for (int dy = 0; dy <= 1; dy++) {
+                cursor.set(start.getX() + direction.getStepX() * step, start.getY() + dy, start.getZ() + direction.getStepZ() * step);
+                BlockState state = stalker.level.getBlockState(cursor);
+                if (!state.getMaterial().blocksMotion()) {
+                    continue;
+                }
+                if (!BreakabilityTable.isBreakable(state)) {
+                    return;
+                }
+                open = false;
+                planned.enqueue(cursor.asLong());
+            }
+            if (open) {
+                break;
+            }
+        }
+
+        if (!planned.isEmpty() && ModConfig.current().enableLogging)
+            ItFollowsMod.LOGGER.info("[It Follows] Tunneling {} from {} ({} blocks)", direction, start, planned.size());
+        while (!planned.isEmpty()) {
+            pending.enqueue(planned.dequeueLong());
+        }
+    }
+
+    /**
+     * Breaks up to a budget of queued blocks, skipping any that changed.
+     */
+    private void breakPending(int budget) {
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        while (budget > 0 && !pending.isEmpty()) {
+            cursor.set(pending.dequeueLong());
+            BlockState state = stalker.level.getBlockState(cursor);
+            if (state.isAir() || !BreakabilityTable.isBreakable(state)) {
+                continue;
+            }
+            stalker.level.destroyBlock(cursor, true);
+            budget--;
+        }
+        if (pending.isEmpty()) {
+            stalker.getObstacleScanner().invalidate();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.itfollowsmod.pathfinding;
+
+import com.itfollowsmod.ItFollowsMod;
+import com.itfollowsmod.ModConfig;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.ai.attributes.Attributes;
+import net.minecraft.world.level.pathfinder.BlockPathTypes;
+import net.minecraft.world.level.pathfinder.Node;
+import net.minecraft.world.level.pathfinder.NodeEvaluator;
+import net.minecraft.world.level.pathfinder.Path;
+import net.minecraft.world.level.pathfinder.PathFinder;
+import net.minecraft.world.level.pathfinder.WalkNodeEvaluator;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a mob's path searches on a shared worker pool. The blocks around the
+ * mob and its goal are copied into a SectionSnapshotRegion on the server
+ * thread, A* runs against the copy on a worker with its own PathFinder, and
+ * the finished path is checked against the live level and handed to the
+ * navigation on a later tick. The mob keeps following its previous path
+ * while the search runs.
+ *
+ * The worker never sees the mob itself. The start node is found on the
+ * server thread, and the search runs for a detached copy of the mob (same
+ * type, never added to the level) whose position, step height and path
+ * maluses are copied over before each search.
+ */
+public class AsyncPathPlanner {
+    private static final int SNAPSHOT_MARGIN = 16; // Blocks around the mob and goal the search may wander into
+    private static final int MAX_SNAPSHOT_RADIUS = 96; // Never copy more than this far from the mob
+    private static final int VALIDATED_NODES = 16; // Nodes ahead re-checked against the live level
+    private static final double MAX_START_DISTANCE_SQR = 4.0 * 4.0; // Mob moved this far meanwhile: throw the path away
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+            runnable -> {
+                Thread thread = new Thread(runnable, "It Follows Pathfinder #" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Mob mob;
+    private Mob detached = null; // Stands in for the mob on the worker
+    private CompletableFuture<Path> pending = null;
+    private double pendingSpeed;
+    private volatile boolean searching = false; // A worker is using the detached mob, even if its result was dropped
+
+    /**
+     * Creates a planner for one mob.
+     *
+     * @param mob The mob whose navigation receives the paths.
+     */
+    public AsyncPathPlanner(Mob mob) {
+        this.mob = mob;
+    }
+
+    /**
+     * Checks if a search is still running.
+     */
+    public boolean isPending() {
+        return pending != null;
+    }
+
+    /**
+     * Starts a search for a path to a block, unless one is already running.
+     * Must be called on the server thread.
+     *
+     * @param level  The mob's level.
+     * @param target The block to reach.
+     * @param speed  The speed to follow the path at once it's found.
+     */
+    public void request(ServerLevel level, BlockPos target, double speed) {
+        if (pending != null || searching)
+            return;
+        if (detached == null) {
+            if (!(mob.getType().create(level) instanceof Mob copy))
+                return;
+            detached = copy;
+        }
+
+        float range = (float) mob.getAttributeValue(Attributes.FOLLOW_RANGE);
+        BlockPos origin = mob.blockPosition();
+        BlockPos from = clamp(origin, new BlockPos(
+                Math.min(origin.getX(), target.getX()) - SNAPSHOT_MARGIN,
+                Math.min(origin.getY(), target.getY()) - SNAPSHOT_MARGIN,
+                Math.min(origin.getZ(), target.getZ()) - SNAPSHOT_MARGIN));
+        BlockPos to = clamp(origin, new BlockPos(
+                Math.max(origin.getX(), target.getX()) + SNAPSHOT_MARGIN,
+                Math.max(origin.getY(), target.getY()) + SNAPSHOT_MARGIN,
+                Math.max(origin.getZ(), target.getZ()) + SNAPSHOT_MARGIN));
+
+        SectionSnapshotRegion region = new SectionSnapshotRegion(level, from, to);
+        NodeEvaluator source = mob.getNavigation().getNodeEvaluator();
+        BlockPos start = findStart(source, region);
+        copyState(mob, detached);
+
+        PathFinder pathFinder = new PathFinder(copyEvaluator(source, start), Mth.floor(range * 16.0F));
+        Mob searcher = detached;
+        pendingSpeed = speed;
+        searching = true;
+        pending = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pathFinder.findPath(region, searcher, Set.of(target), range, 1, 1.0F);
+            } finally {
+                searching = false;
+            }
+        }, WORKERS);
+    }
+
+    /**
+     * Applies the result of a finished search, if it still fits the level
+     * and where the mob is now. Call once per tick on the server thread.
+     *
+     * @return True if a new path was handed to the navigation.
+     */
+    public boolean poll() {
+        if (pending == null || !pending.isDone())
+            return false;
+
+        Path path;
+        try {
+            path = pending.join();
+        } catch (RuntimeException e) {
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.warn("[It Follows] Async path search failed", e);
+            path = null;
+        }
+        pending = null;
+
+        if (path == null || !isStillValid(path))
+            return false;
+
+        return mob.getNavigation().moveTo(path, pendingSpeed);
+    }
+
+    /**
+     * Drops the running search's result, if any.
+     */
+    public void cancel() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    /**
+     * The search saw the level as it was a few ticks ago: make sure the mob
+     * is still near the path's start and the next stretch of it hasn't been
+     * blocked since.
+     */
+    private boolean isStillValid(Path path) {
+        if (path.getNodeCount() == 0)
+            return false;
+
+        Node start = path.getNode(0);
+        if (mob.distanceToSqr(start.x + 0.5, start.y, start.z + 0.5) > MAX_START_DISTANCE_SQR)
+            return false;
+
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        int end = Math.min(path.getNodeCount(), VALIDATED_NODES);
+        for (int i = 0; i < end; i++) {
+            Node node = path.getNode(i);
+            if (node.type == BlockPathTypes.BREACH)
+                continue; // Meant to be broken through
+            BlockPathTypes type = WalkNodeEvaluator.getBlockPathTypeStatic(mob.level, cursor.set(node.x, node.y, node.z));
+            if (mob.getPathfindingMalus(type) < 0.0F)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Limits a corner of the snapshot to MAX_SNAPSHOT_RADIUS around the mob.
+     */
+    private static BlockPos clamp(BlockPos origin, BlockPos corner) {
+        return new BlockPos(
+                Mth.clamp(corner.getX(), origin.getX() - MAX_SNAPSHOT_RADIUS, origin.getX() + MAX_SNAPSHOT_RADIUS),
+                Mth.clamp(corner.getY(), origin.getY() - MAX_SNAPSHOT_RADIUS, origin.getY() + MAX_SNAPSHOT_RADIUS),
+                Mth.clamp(corner.getZ(), origin.getZ() - MAX_SNAPSHOT_RADIUS, origin.getZ() + MAX_SNAPSHOT_RADIUS));
+    }
+
+    /**
+     * Finds where the search starts, the way the navigation would, on the
+     * server thread where looking at the live mob is safe.
+     */
+    private BlockPos findStart(NodeEvaluator source, SectionSnapshotRegion region) {
+        NodeEvaluator evaluator = source instanceof StalkerNodeEvaluator ? new StalkerNodeEvaluator() : new WalkNodeEvaluator();
+        configure(evaluator, source);
+        evaluator.prepare(region, mob);
+        BlockPos start = evaluator.getStart().asBlockPos();
+        evaluator.done();
+        return start;
+    }
+
+    /**
+     * Gives the detached copy what the node evaluator reads from a mob.
+     * Moving it also moves its bounding box.
+     */
+    private static void copyState(Mob from, Mob to) {
+        to.moveTo(from.getX(), from.getY(), from.getZ(), from.getYRot(), from.getXRot());
+        to.setOnGround(from.isOnGround());
+        to.maxUpStep = from.maxUpStep;
+        for (BlockPathTypes type : BlockPathTypes.values()) {
+            to.setPathfindingMalus(type, from.getPathfindingMalus(type));
+        }
+    }
+
+    /**
+     * Node evaluators keep per-search state, so every search gets its own,
+     * set up like the navigation's.
+     */
+    private static NodeEvaluator copyEvaluator(NodeEvaluator source, BlockPos start) {
+        NodeEvaluator evaluator = new SnapshotNodeEvaluator(start, source instanceof StalkerNodeEvaluator);
+        configure(evaluator, source);
+        return evaluator;
+    }
+
+    private static void configure(NodeEvaluator evaluator, NodeEvaluator source) {
+        evaluator.setCanPassDoors(source.canPassDoors());
+        evaluator.setCanOpenDoors(source.canOpenDoors());
+        evaluator.setCanFloat(source.canFloat());
+    }
+}
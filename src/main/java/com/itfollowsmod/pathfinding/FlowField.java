@@ -0,0 +1,483 @@
+package com.itfollowsmod.pathfinding;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+
+/**
+ * Walking distance to one player from every standable cell around them,
+ * found by a breadth-first search outward from where the player stands. Any
+ * number of Stalkers hunting the player can then walk to them by stepping to
+ * the neighbor with the lowest distance, which costs a handful of map
+ * lookups per step instead of a path search per Stalker.
+ *
+ * The first search is spread over ticks with a budget of cells per tick,
+ * into a second map that is swapped in when done. After that the field is
+ * kept up to date in place, under the same budget:
+ * <ul>
+ * <li>When the player moves, every distance grows by how far the Stalker
+ * would walk from the old spot to the new one (kept as an offset, nothing
+ * is rewritten) and the search goes on from the new spot, only touching
+ * cells that got closer.</li>
+ * <li>When a block changes, the cells it can stand in or block are
+ * re-checked. Cells that lost their way to the player are dropped and
+ * filled in again from their neighbors.</li>
+ * </ul>
+ */
+public class FlowField {
+    public static final int UNREACHED = Integer.MAX_VALUE;
+    public static final int HORIZONTAL_RADIUS = 48;
+    public static final int VERTICAL_RADIUS = 24;
+
+    private static final int MAX_CELLS = 65536; // Larger caves just get a partial field
+    private static final int MAX_SHIFT_SEARCH = 256; // Cells looked at to follow the player; further and the field is rebuilt
+    private static final int MAX_PENDING_CHANGES = 256; // Changes kept while building; more and it's built again
+    // Height of a neighbor relative to the cell the search is expanding: the
+    // Stalker walks the other way, so it steps up one block or drops up to three
+    private static final int[] NEIGHBOR_DY = {0, -1, 1, 2, 3};
+
+    private final ServerLevel level;
+
+    // The field in use. A stored value plus the offset is the distance.
+    private Long2IntOpenHashMap distances = new Long2IntOpenHashMap();
+    private int offset = 0;
+    private BlockPos origin = null; // Where the player stood for the field in use
+    private boolean ready = false;
+    private BlockPos prunedFor = null; // Origin cells out of range were last dropped for
+    private final LongArrayFIFOQueue relaxQueue = new LongArrayFIFOQueue(); // Cells that got closer, to pass on
+    private final LongArrayFIFOQueue supportQueue = new LongArrayFIFOQueue(); // Cells that may have lost their way
+    private final LongArrayList refill = new LongArrayList(); // Cells to fill in again from their neighbors
+
+    // A search from scratch, swapped in when done
+    private Long2IntOpenHashMap building = new Long2IntOpenHashMap();
+    private final LongArrayFIFOQueue buildQueue = new LongArrayFIFOQueue();
+    private BlockPos buildOrigin = null;
+    private final LongArrayList changedWhileBuilding = new LongArrayList();
+    private boolean buildAgain = false;
+
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+    /**
+     * Creates an empty field.
+     *
+     * @param level The level the player is in.
+     */
+    public FlowField(ServerLevel level) {
+        this.level = level;
+        this.distances.defaultReturnValue(UNREACHED);
+        this.building.defaultReturnValue(UNREACHED);
+    }
+
+    /**
+     * Gets the level the field was built in.
+     */
+    public ServerLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the cell the current search (or the field in use) started from.
+     */
+    public BlockPos getOrigin() {
+        return buildOrigin != null ? buildOrigin : origin;
+    }
+
+    /**
+     * Checks if a search from scratch is in progress.
+     */
+    public boolean isBuilding() {
+        return buildOrigin != null;
+    }
+
+    /**
+     * Checks if a cell is close enough to a player's cell to be in their
+     * field.
+     *
+     * @param center The player's cell.
+     * @param pos    The cell to check.
+     */
+    public static boolean isInRange(BlockPos center, BlockPos pos) {
+        return isInRange(center, pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * Starts a new search from the player's cell. The previous field is
+     * still answered from until this one finishes.
+     *
+     * @param start The cell the player stands in.
+     */
+    public void rebuild(BlockPos start) {
+        building.clear();
+        buildQueue.clear();
+        changedWhileBuilding.clear();
+        buildAgain = false;
+        buildOrigin = start.immutable();
+        building.put(buildOrigin.asLong(), 0);
+        buildQueue.enqueue(buildOrigin.asLong());
+    }
+
+    /**
+     * Moves the field to the player's new cell, keeping what is known. Falls
+     * back to a search from scratch if the player can't be followed there
+     * within a few hundred cells (a teleport, or a fall out of range).
+     *
+     * @param newOrigin The cell the player stands in now.
+     */
+    public void moveOrigin(BlockPos newOrigin) {
+        if (buildOrigin != null || !ready || newOrigin.equals(origin))
+            return;
+
+        int shift = findWalkDistance(origin, newOrigin);
+        if (shift == UNREACHED) {
+            rebuild(newOrigin);
+            return;
+        }
+
+        // Nothing is further from the new spot than from the old one plus the walk between them
+        offset += shift;
+        origin = newOrigin.immutable();
+        set(origin.asLong(), 0);
+        relaxQueue.enqueue(origin.asLong());
+    }
+
+    /**
+     * Does up to a number of cells of work: the search from scratch if one
+     * is running, otherwise the updates after moves and block changes.
+     *
+     * @param budget Cells to expand at most.
+     */
+    public void step(int budget) {
+        if (buildOrigin != null) {
+            budget = stepBuild(budget);
+            if (buildOrigin != null)
+                return;
+        }
+
+        while (budget-- > 0) {
+            if (!supportQueue.isEmpty()) {
+                checkSupport(supportQueue.dequeueLong());
+            } else if (!refill.isEmpty()) {
+                fillIn(refill.removeLong(refill.size() - 1));
+            } else if (!relaxQueue.isEmpty()) {
+                relax(relaxQueue.dequeueLong());
+            } else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Gets the distance to the player from a cell.
+     *
+     * @return The number of steps, or UNREACHED if the cell isn't in the field.
+     */
+    public int getDistance(BlockPos pos) {
+        return get(pos.asLong());
+    }
+
+    /**
+     * Gets the neighbor of a cell that is one step closer to the player.
+     *
+     * @param from The cell the Stalker stands in.
+     * @return The next cell, or null if the Stalker is outside the field or
+     * already at the player.
+     */
+    public BlockPos next(BlockPos from) {
+        if (!ready)
+            return null;
+
+        int current = get(from.asLong());
+        if (current == UNREACHED || current == 0)
+            return null;
+
+        long best = 0;
+        int bestDistance = current;
+        for (Direction direction : Direction.Plane.HORIZONTAL) {
+            for (int dy = 1; dy >= -3; dy--) {
+                long neighbor = BlockPos.asLong(from.getX() + direction.getStepX(), from.getY() + dy, from.getZ() + direction.getStepZ());
+                int distance = get(neighbor);
+                if (distance < bestDistance) {
+                    best = neighbor;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return bestDistance < current ? BlockPos.of(best) : null;
+    }
+
+    /**
+     * Re-checks the cells a changed block can stand in or block: the one it
+     * is the floor of, the one it is the feet of and the one it is the head
+     * of. A change during a search from scratch is applied once it's done.
+     */
+    public void invalidate(BlockPos pos) {
+        if (buildOrigin != null) {
+            if (isInRange(buildOrigin, pos.getX(), pos.getY(), pos.getZ())) {
+                if (changedWhileBuilding.size() < MAX_PENDING_CHANGES)
+                    changedWhileBuilding.add(pos.asLong());
+                else
+                    buildAgain = true;
+            }
+            return;
+        }
+        if (!ready || !isInRange(origin, pos.getX(), pos.getY(), pos.getZ()))
+            return;
+
+        for (int dy = -1; dy <= 1; dy++) {
+            int x = pos.getX();
+            int y = pos.getY() + dy;
+            int z = pos.getZ();
+            long cell = BlockPos.asLong(x, y, z);
+            int distance = get(cell);
+            if (distance == 0)
+                continue; // The player's cell, moving the origin sorts it out
+
+            if (distance != UNREACHED) {
+                if (!isStandable(x, y, z)) {
+                    distances.remove(cell);
+                    queueDependents(x, y, z, distance);
+                }
+            } else if (isInRange(origin, x, y, z) && isStandable(x, y, z)) {
+                refill.add(cell);
+            }
+        }
+    }
+
+    /**
+     * Expands up to a number of cells of the search from scratch, and swaps
+     * the result in when it's done.
+     *
+     * @return The budget left over.
+     */
+    private int stepBuild(int budget) {
+        while (budget > 0 && !buildQueue.isEmpty()) {
+            budget--;
+            long cell = buildQueue.dequeueLong();
+            int distance = building.get(cell);
+            int x = BlockPos.getX(cell);
+            int y = BlockPos.getY(cell);
+            int z = BlockPos.getZ(cell);
+
+            for (Direction direction : Direction.Plane.HORIZONTAL) {
+                int nx = x + direction.getStepX();
+                int nz = z + direction.getStepZ();
+                for (int dy : NEIGHBOR_DY) {
+                    int ny = y + dy;
+                    long neighbor = BlockPos.asLong(nx, ny, nz);
+                    if (building.containsKey(neighbor) || building.size() >= MAX_CELLS
+                            || !isInRange(buildOrigin, nx, ny, nz) || !isStandable(nx, ny, nz))
+                        continue;
+
+                    building.put(neighbor, distance + 1);
+                    buildQueue.enqueue(neighbor);
+                }
+            }
+        }
+
+        if (!buildQueue.isEmpty())
+            return 0;
+
+        // Done: the new field replaces the old one, whose map is reused next time
+        Long2IntOpenHashMap finished = building;
+        building = distances;
+        building.clear();
+        distances = finished;
+        offset = 0;
+        origin = buildOrigin;
+        buildOrigin = null;
+        prunedFor = null;
+        ready = true;
+        relaxQueue.clear();
+        supportQueue.clear();
+        refill.clear();
+
+        if (buildAgain) {
+            rebuild(origin);
+            return 0;
+        }
+        for (int i = 0; i < changedWhileBuilding.size(); i++) {
+            invalidate(BlockPos.of(changedWhileBuilding.getLong(i)));
+        }
+        changedWhileBuilding.clear();
+        return budget;
+    }
+
+    /**
+     * Passes a cell's distance on to the cells that can walk into it, where
+     * that makes them closer.
+     */
+    private void relax(long cell) {
+        int distance = get(cell);
+        if (distance == UNREACHED)
+            return; // Dropped since it was queued
+
+        int x = BlockPos.getX(cell);
+        int y = BlockPos.getY(cell);
+        int z = BlockPos.getZ(cell);
+        for (Direction direction : Direction.Plane.HORIZONTAL) {
+            int nx = x + direction.getStepX();
+            int nz = z + direction.getStepZ();
+            for (int dy : NEIGHBOR_DY) {
+                int ny = y + dy;
+                long neighbor = BlockPos.asLong(nx, ny, nz);
+                int known = get(neighbor);
+                if (known <= distance + 1 || !isInRange(origin, nx, ny, nz) || !isStandable(nx, ny, nz))
+                    continue;
+                if (known == UNREACHED && !makeRoom())
+                    continue;
+
+                set(neighbor, distance + 1);
+                relaxQueue.enqueue(neighbor);
+            }
+        }
+    }
+
+    /**
+     * Drops a cell that no longer has a neighbor one step closer to the
+     * player, and has the cells that relied on it checked in turn.
+     */
+    private void checkSupport(long cell) {
+        int distance = get(cell);
+        if (distance == UNREACHED || distance == 0)
+            return;
+
+        int x = BlockPos.getX(cell);
+        int y = BlockPos.getY(cell);
+        int z = BlockPos.getZ(cell);
+        for (Direction direction : Direction.Plane.HORIZONTAL) {
+            for (int dy : NEIGHBOR_DY) {
+                // The Stalker steps up one or drops up to three, the reverse of the search
+                if (get(BlockPos.asLong(x + direction.getStepX(), y - dy, z + direction.getStepZ())) == distance - 1)
+                    return;
+            }
+        }
+
+        distances.remove(cell);
+        refill.add(cell);
+        queueDependents(x, y, z, distance);
+    }
+
+    /**
+     * Queues the cells whose distance may have come through a dropped cell.
+     */
+    private void queueDependents(int x, int y, int z, int distance) {
+        for (Direction direction : Direction.Plane.HORIZONTAL) {
+            for (int dy : NEIGHBOR_DY) {
+                long neighbor = BlockPos.asLong(x + direction.getStepX(), y + dy, z + direction.getStepZ());
+                if (get(neighbor) == distance + 1)
+                    supportQueue.enqueue(neighbor);
+            }
+        }
+    }
+
+    /**
+     * Gives a dropped or newly opened cell a distance from its neighbors, if
+     * any of them still has one, and passes it on.
+     */
+    private void fillIn(long cell) {
+        int x = BlockPos.getX(cell);
+        int y = BlockPos.getY(cell);
+        int z = BlockPos.getZ(cell);
+        if (get(cell) != UNREACHED || !isInRange(origin, x, y, z) || !isStandable(x, y, z))
+            return;
+
+        int best = UNREACHED;
+        for (Direction direction : Direction.Plane.HORIZONTAL) {
+            for (int dy : NEIGHBOR_DY) {
+                best = Math.min(best, get(BlockPos.asLong(x + direction.getStepX(), y - dy, z + direction.getStepZ())));
+            }
+        }
+        if (best == UNREACHED || !makeRoom())
+            return;
+
+        set(cell, best + 1);
+        relaxQueue.enqueue(cell);
+    }
+
+    /**
+     * Gets how many steps the Stalker would take from one cell to another,
+     * looking at a few hundred cells at most.
+     *
+     * @return The number of steps, or UNREACHED if it wasn't found.
+     */
+    private int findWalkDistance(BlockPos from, BlockPos to) {
+        long target = to.asLong();
+        Long2IntOpenHashMap seen = new Long2IntOpenHashMap();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        seen.put(from.asLong(), 0);
+        queue.enqueue(from.asLong());
+
+        int expanded = 0;
+        while (!queue.isEmpty() && expanded++ < MAX_SHIFT_SEARCH) {
+            long cell = queue.dequeueLong();
+            int distance = seen.get(cell);
+            int x = BlockPos.getX(cell);
+            int y = BlockPos.getY(cell);
+            int z = BlockPos.getZ(cell);
+            for (Direction direction : Direction.Plane.HORIZONTAL) {
+                int nx = x + direction.getStepX();
+                int nz = z + direction.getStepZ();
+                for (int dy : NEIGHBOR_DY) {
+                    long neighbor = BlockPos.asLong(nx, y - dy, nz);
+                    if (neighbor == target)
+                        return distance + 1; // The player's cell, standable or not, like the search's start
+                    if (seen.containsKey(neighbor) || !isStandable(nx, y - dy, nz))
+                        continue;
+
+                    seen.put(neighbor, distance + 1);
+                    queue.enqueue(neighbor);
+                }
+            }
+        }
+        return UNREACHED;
+    }
+
+    /**
+     * Checks if another cell may be added, dropping the cells that fell out
+     * of range of the player (once per origin) if the field is full.
+     */
+    private boolean makeRoom() {
+        if (distances.size() < MAX_CELLS)
+            return true;
+        if (origin.equals(prunedFor))
+            return false;
+
+        prunedFor = origin;
+        distances.long2IntEntrySet().removeIf(entry -> {
+            long cell = entry.getLongKey();
+            return !isInRange(origin, BlockPos.getX(cell), BlockPos.getY(cell), BlockPos.getZ(cell));
+        });
+        return distances.size() < MAX_CELLS;
+    }
+
+    private int get(long cell) {
+        int stored = distances.get(cell);
+        return stored == UNREACHED ? UNREACHED : stored + offset;
+    }
+
+    private void set(long cell, int distance) {
+        distances.put(cell, distance - offset);
+    }
+
+    private static boolean isInRange(BlockPos center, int x, int y, int z) {
+        return Math.abs(x - center.getX()) <= HORIZONTAL_RADIUS
+                && Math.abs(z - center.getZ()) <= HORIZONTAL_RADIUS
+                && Math.abs(y - center.getY()) <= VERTICAL_RADIUS;
+    }
+
+    /**
+     * A cell a two block tall mob can stand in: feet and head free, solid floor.
+     */
+    private boolean isStandable(int x, int y, int z) {
+        if (!level.hasChunkAt(cursor.set(x, y, z)))
+            return false;
+        if (level.getBlockState(cursor).getMaterial().blocksMotion())
+            return false;
+        if (level.getBlockState(cursor.set(x, y + 1, z)).getMaterial().blocksMotion())
+            return false;
+        return level.getBlockState(cursor.set(x, y - 1, z)).getMaterial().blocksMotion();
+    }
+}
@@ -0,0 +1,126 @@
+package com.itfollowsmod.pathfinding;
+
+import com.itfollowsmod.ItFollowsMod;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps one FlowField per hunted player. A field is created the first time a
+ * Stalker near the player asks for it, advanced a budgeted number of cells
+ * every tick, moved along when the player walks off its origin, patched
+ * when a block inside it changes, and dropped once no Stalker has asked for
+ * it in a while. The work therefore grows with the number of hunted
+ * players, not Stalkers.
+ */
+@Mod.EventBusSubscriber(modid = ItFollowsMod.MOD_ID)
+public class FlowFieldManager {
+    private static final int CELLS_PER_TICK = 2048; // Per field
+    private static final int MOVE_DISTANCE = 2; // Blocks the player may move before the field follows
+    private static final long IDLE_TIMEOUT = 200; // Ticks without a request before a field is dropped
+
+    private static final Map<UUID, Tracked> FIELDS = new HashMap<>();
+
+    private static class Tracked {
+        private final FlowField field;
+        private long lastRequested;
+
+        private Tracked(FlowField field, long lastRequested) {
+            this.field = field;
+            this.lastRequested = lastRequested;
+        }
+    }
+
+    /**
+     * Gets the field around a player, starting one if there is none yet.
+     * The field may not be finished yet; FlowField.next() returns null then.
+     *
+     * @param player The hunted player.
+     * @return The player's field.
+     */
+    public static FlowField get(ServerPlayer player) {
+        ServerLevel level = player.getLevel();
+        Tracked tracked = FIELDS.get(player.getUUID());
+        if (tracked == null || tracked.field.getLevel() != level) {
+            tracked = new Tracked(new FlowField(level), level.getGameTime());
+            tracked.field.rebuild(player.blockPosition());
+            FIELDS.put(player.getUUID(), tracked);
+        }
+        tracked.lastRequested = level.getGameTime();
+        return tracked.field;
+    }
+
+    /**
+     * Advances the fields of the level's players.
+     */
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || !(event.level instanceof ServerLevel serverLevel) || FIELDS.isEmpty())
+            return;
+
+        long gameTime = serverLevel.getGameTime();
+        Iterator<Map.Entry<UUID, Tracked>> iterator = FIELDS.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Tracked> entry = iterator.next();
+            Tracked tracked = entry.getValue();
+            if (tracked.field.getLevel() != serverLevel)
+                continue;
+
+            if (gameTime - tracked.lastRequested > IDLE_TIMEOUT
+                    || !(serverLevel.getPlayerByUUID(entry.getKey()) instanceof ServerPlayer player)) {
+                iterator.remove();
+                continue;
+            }
+
+            // Only follow the player from the ground, a jump shouldn't move the field twice
+            FlowField field = tracked.field;
+            BlockPos playerPos = player.blockPosition();
+            if (!field.isBuilding() && player.isOnGround() && field.getOrigin().distManhattan(playerPos) >= MOVE_DISTANCE)
+                field.moveOrigin(playerPos);
+
+            field.step(CELLS_PER_TICK);
+        }
+    }
+
+    /**
+     * Block changes can open or close a way inside a field.
+     */
+    @SubscribeEvent
+    public static void onBlockEvent(BlockEvent event) {
+        if (FIELDS.isEmpty() || !(event.getLevel() instanceof ServerLevel serverLevel))
+            return;
+
+        for (Tracked tracked : FIELDS.values()) {
+            if (tracked.field.getLevel() == serverLevel)
+                tracked.field.invalidate(event.getPos());
+        }
+    }
+
+    /**
+     * Drops the field of a player who logs out.
+     */
+    @SubscribeEvent
+    public static void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        FIELDS.remove(event.getEntity().getUUID());
+    }
+
+    /**
+     * Drops the fields of a level that unloads.
+     */
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel)
+            FIELDS.values().removeIf(tracked -> tracked.field.getLevel() == serverLevel);
+    }
+}
@@ -0,0 +1,200 @@
+package com.itfollowsmod.pathfinding;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+
+import java.util.PriorityQueue;
+
+/**
+ * A Stalker's route to a far away player, planned over the SectionGraph
+ * instead of block by block. The route is a list of sections; the fine
+ * pathfinder only ever has to reach the waypoint of a section a couple of
+ * sections ahead, which keeps every vanilla path short no matter how far
+ * the player is. A route is replanned when the player changes section, a
+ * section still ahead on it changes, or it gets old.
+ */
+public class LongRangeRoute {
+    private static final int MAX_EXPANDED = 4096; // Sections looked at per plan
+    private static final int LOOKAHEAD = 2; // Sections (Chebyshev) the next waypoint may be ahead
+    private static final int UNLOADED_COST = 3; // Sections we can't see into are a last resort
+    private static final int REPLAN_INTERVAL = 200; // Ticks a route is trusted for
+    private static final double WAYPOINT_REACHED_SQR = 3.0 * 3.0;
+
+    private final LongArrayList sections = new LongArrayList();
+    private int next = 0; // Index of the first section not yet reached
+    private long goalSection = Long.MIN_VALUE;
+    private long plannedTime = Long.MIN_VALUE;
+    private boolean provisional = false; // Planned past sections the graph had no budget to summarize
+    private BlockPos waypoint = null;
+
+    /**
+     * Gets the block the Stalker should walk to next on its way to the
+     * target, planning or replanning the route when the target moved to
+     * another section, a section ahead on the route changed, or the route
+     * got old.
+     *
+     * @param level  The level.
+     * @param mob    The Stalker.
+     * @param target The entity being followed.
+     * @return The next waypoint, or null if no route was found.
+     */
+    public BlockPos nextWaypoint(ServerLevel level, Entity mob, Entity target) {
+        SectionGraph graph = SectionGraph.get(level);
+        long targetSection = SectionPos.asLong(target.blockPosition());
+        long gameTime = level.getGameTime();
+
+        if (targetSection != goalSection || gameTime - plannedTime > REPLAN_INTERVAL || sections.isEmpty()
+                || (provisional && gameTime != plannedTime) || isChangedAhead(graph)) {
+            plan(level, graph, SectionPos.asLong(mob.blockPosition()), targetSection);
+            goalSection = targetSection;
+            plannedTime = gameTime;
+            provisional = graph.wasDeferredSince(gameTime);
+            waypoint = null;
+            if (sections.isEmpty())
+                return null;
+        }
+
+        if (waypoint != null && mob.blockPosition().distSqr(waypoint) > WAYPOINT_REACHED_SQR)
+            return waypoint;
+
+        // Skip past the section the Stalker is already in; neighbors stay, the lookahead below picks further ones
+        long mobSection = SectionPos.asLong(mob.blockPosition());
+        for (int i = next; i < sections.size(); i++) {
+            if (chebyshev(sections.getLong(i), mobSection) <= 0)
+                next = i + 1;
+        }
+
+        // The furthest section within the lookahead that has somewhere to stand
+        waypoint = null;
+        for (int i = next; i < sections.size(); i++) {
+            long section = sections.getLong(i);
+            if (chebyshev(section, mobSection) > LOOKAHEAD)
+                break;
+
+            SectionGraph.Section summary = graph.getSection(level, section);
+            BlockPos candidate = summary != null ? summary.getWaypoint(section) : null;
+            if (candidate != null)
+                waypoint = candidate;
+        }
+
+        return waypoint;
+    }
+
+    /**
+     * Forgets the route, for when the Stalker is close enough to path to
+     * the target directly.
+     */
+    public void clear() {
+        sections.clear();
+        next = 0;
+        goalSection = Long.MIN_VALUE;
+        waypoint = null;
+    }
+
+    /**
+     * Checks if a section the Stalker has yet to pass through changed since
+     * the route was planned.
+     */
+    private boolean isChangedAhead(SectionGraph graph) {
+        for (int i = next; i < sections.size(); i++) {
+            if (graph.hasChangedSince(sections.getLong(i), plannedTime))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * A* over sections, moving through the open sides of each, keeping to
+     * sections with somewhere to stand. Unseen sections are crossable but
+     * cost more. If the goal can't be reached within the expansion budget,
+     * the route leads to the section that got closest to it.
+     */
+    private void plan(ServerLevel level, SectionGraph graph, long start, long goal) {
+        sections.clear();
+        next = 0;
+
+        Long2IntOpenHashMap cost = new Long2IntOpenHashMap();
+        cost.defaultReturnValue(Integer.MAX_VALUE);
+        Long2LongOpenHashMap cameFrom = new Long2LongOpenHashMap();
+        PriorityQueue<long[]> open = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+
+        cost.put(start, 0);
+        open.add(new long[]{heuristic(start, goal), start});
+
+        long best = start;
+        int bestHeuristic = heuristic(start, goal);
+        int expanded = 0;
+
+        while (!open.isEmpty() && expanded < MAX_EXPANDED) {
+            long[] entry = open.poll();
+            long current = entry[1];
+            int currentCost = cost.get(current);
+            if (entry[0] > currentCost + heuristic(current, goal))
+                continue; // Stale queue entry
+
+            expanded++;
+            if (current == goal) {
+                best = current;
+                break;
+            }
+
+            int h = heuristic(current, goal);
+            if (h < bestHeuristic) {
+                best = current;
+                bestHeuristic = h;
+            }
+
+            SectionGraph.Section summary = graph.getSection(level, current);
+            if (summary == null)
+                continue;
+
+            for (Direction side : Direction.values()) {
+                if (!summary.isOpen(side))
+                    continue;
+
+                long neighbor = SectionPos.offset(current, side);
+                SectionGraph.Section neighborSummary = graph.getSection(level, neighbor);
+                if (neighborSummary == null || (!neighborSummary.isRoutable() && neighbor != goal))
+                    continue;
+
+                int stepCost = neighborSummary.isLoaded() ? 1 : UNLOADED_COST;
+                int neighborCost = currentCost + stepCost;
+                if (neighborCost < cost.get(neighbor)) {
+                    cost.put(neighbor, neighborCost);
+                    cameFrom.put(neighbor, current);
+                    open.add(new long[]{neighborCost + heuristic(neighbor, goal), neighbor});
+                }
+            }
+        }
+
+        // Walk back from the best section found
+        long section = best;
+        while (section != start) {
+            sections.add(section);
+            section = cameFrom.get(section);
+        }
+        sections.add(start);
+        for (int i = 0, j = sections.size() - 1; i < j; i++, j--) {
+            long swap = sections.getLong(i);
+            sections.set(i, sections.getLong(j));
+            sections.set(j, swap);
+        }
+    }
+
+    private static int heuristic(long a, long b) {
+        return Math.abs(SectionPos.x(a) - SectionPos.x(b))
+                + Math.abs(SectionPos.y(a) - SectionPos.y(b))
+                + Math.abs(SectionPos.z(a) - SectionPos.z(b));
+    }
+
+    private static int chebyshev(long a, long b) {
+        return Math.max(Math.abs(SectionPos.x(a) - SectionPos.x(b)),
+                Math.max(Math.abs(SectionPos.y(a) - SectionPos.y(b)), Math.abs(SectionPos.z(a) - SectionPos.z(b))));
+    }
+}
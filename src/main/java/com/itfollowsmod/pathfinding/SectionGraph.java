@@ -0,0 +1,353 @@
+package com.itfollowsmod.pathfinding;
+
+import com.itfollowsmod.ItFollowsMod;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Coarse walkability of a level, one node per 16x16x16 chunk section. For
+ * each section we remember which of its sides can be walked (or fallen,
+ * climbed) through - the portals to its neighbors - and one standable cell
+ * near its middle to use as a waypoint. Sections are summarized the first
+ * time a route needs them, at most SUMMARIES_PER_TICK per tick, and
+ * forgotten when a block in them changes or their chunk unloads. When a
+ * block change makes us forget a section, the time is kept for a while so
+ * routes through it know to replan.
+ */
+@Mod.EventBusSubscriber(modid = ItFollowsMod.MOD_ID)
+public class SectionGraph {
+    private static final int MAX_SECTIONS = 65536; // Start over rather than grow without bound
+    private static final int SUMMARIES_PER_TICK = 32; // About 4.6k block reads each
+    private static final long CHANGE_RETENTION = 200; // Ticks a change is remembered; routes replan more often
+    private static final int MAX_CHANGES = 4096; // Prune old changes past this many
+    private static final Map<ResourceKey<Level>, SectionGraph> GRAPHS = new HashMap<>();
+
+    private final Long2ObjectOpenHashMap<Section> sections = new Long2ObjectOpenHashMap<>();
+    private final Long2LongOpenHashMap changedAt = new Long2LongOpenHashMap(); // Section -> game time its blocks changed
+    private long budgetTime = Long.MIN_VALUE; // Game time the summary budget is counted for
+    private int summarized = 0; // Sections summarized at budgetTime
+    private long deferredTime = Long.MIN_VALUE; // Last game time a summary was put off for lack of budget
+
+    /**
+     * What a route needs to know about one section.
+     */
+    public static class Section {
+        public static final int NO_WAYPOINT = -1;
+
+        private static final Section UNSEEN = new Section(0x3F, NO_WAYPOINT, false);
+
+        private final int openSides; // Bit per Direction ordinal
+        private final int waypoint; // Local cell index (y << 8 | z << 4 | x), or NO_WAYPOINT
+        private final boolean loaded;
+
+        private Section(int openSides, int waypoint, boolean loaded) {
+            this.openSides = openSides;
+            this.waypoint = waypoint;
+            this.loaded = loaded;
+        }
+
+        /**
+         * Checks if a route may leave the section through a side.
+         */
+        public boolean isOpen(Direction side) {
+            return (openSides & (1 << side.ordinal())) != 0;
+        }
+
+        /**
+         * Checks if the section has any way in or out.
+         */
+        public boolean isPassable() {
+            return openSides != 0;
+        }
+
+        /**
+         * Checks if the section was summarized from real blocks, rather than
+         * assumed open because its chunk isn't loaded or there was no budget
+         * left to summarize it this tick.
+         */
+        public boolean isLoaded() {
+            return loaded;
+        }
+
+        /**
+         * Checks if a route may pass through the section: it has a way in and
+         * out and somewhere to stand, or it hasn't been seen yet. All-air
+         * sections are left out, a route through the sky leads nowhere.
+         */
+        public boolean isRoutable() {
+            return openSides != 0 && (waypoint != NO_WAYPOINT || !loaded);
+        }
+
+        /**
+         * Gets the waypoint cell of the section.
+         *
+         * @param sectionKey The section's SectionPos key.
+         * @return The standable cell, or null if the section has none.
+         */
+        public BlockPos getWaypoint(long sectionKey) {
+            if (waypoint == NO_WAYPOINT)
+                return null;
+            return new BlockPos(
+                    SectionPos.sectionToBlockCoord(SectionPos.x(sectionKey)) + (waypoint & 15),
+                    SectionPos.sectionToBlockCoord(SectionPos.y(sectionKey)) + (waypoint >> 8),
+                    SectionPos.sectionToBlockCoord(SectionPos.z(sectionKey)) + (waypoint >> 4 & 15));
+        }
+    }
+
+    /**
+     * Gets (or creates) the graph of a level.
+     */
+    public static SectionGraph get(ServerLevel level) {
+        return GRAPHS.computeIfAbsent(level.dimension(), key -> new SectionGraph());
+    }
+
+    /**
+     * Checks if a summarized section was forgotten because of a block change
+     * since a given time. Only the last CHANGE_RETENTION ticks are known.
+     *
+     * @param sectionKey The section's SectionPos key.
+     * @param since      The game time to compare with.
+     */
+    public boolean hasChangedSince(long sectionKey, long since) {
+        return changedAt.getOrDefault(sectionKey, Long.MIN_VALUE) >= since;
+    }
+
+    /**
+     * Checks if a section had to be left unsummarized since a given time,
+     * because the tick's budget was used up. Searches that saw such a
+     * section should look again on a later tick.
+     *
+     * @param since The game time to compare with.
+     */
+    public boolean wasDeferredSince(long since) {
+        return deferredTime >= since;
+    }
+
+    /**
+     * Gets the summary of a section, building it from the chunk's block data
+     * on first use. Sections in chunks that aren't loaded, and sections past
+     * the tick's summary budget, are reported as open on all sides (and not
+     * cached), so routes may cross them optimistically.
+     *
+     * @param level      The level.
+     * @param sectionKey The section's SectionPos key.
+     * @return The summary, or null if the section is outside the build height.
+     */
+    public Section getSection(ServerLevel level, long sectionKey) {
+        Section section = sections.get(sectionKey);
+        if (section != null)
+            return section;
+
+        int sectionY = SectionPos.y(sectionKey);
+        if (sectionY < level.getMinSection() || sectionY >= level.getMaxSection())
+            return null;
+
+        LevelChunk chunk = level.getChunkSource().getChunkNow(SectionPos.x(sectionKey), SectionPos.z(sectionKey));
+        if (chunk == null)
+            return Section.UNSEEN;
+
+        long now = level.getGameTime();
+        if (now != budgetTime) {
+            budgetTime = now;
+            summarized = 0;
+        }
+        if (summarized >= SUMMARIES_PER_TICK) {
+            deferredTime = now;
+            return Section.UNSEEN;
+        }
+        summarized++;
+
+        if (sections.size() >= MAX_SECTIONS)
+            sections.clear();
+
+        section = summarize(level, chunk, sectionKey);
+        sections.put(sectionKey, section);
+        return section;
+    }
+
+    /**
+     * Checks if another section may still be summarized this tick, so
+     * searches spread over ticks can wait rather than cross sections that
+     * would only be reported UNSEEN.
+     *
+     * @param level The level.
+     */
+    public boolean hasSummaryBudget(ServerLevel level) {
+        return level.getGameTime() != budgetTime || summarized < SUMMARIES_PER_TICK;
+    }
+
+    /**
+     * Forgets the section containing a block, and the neighbor across the
+     * side if the block is on one, since side openings look one block over.
+     *
+     * @param pos      The changed block.
+     * @param gameTime The time of the change.
+     */
+    public void invalidate(BlockPos pos, long gameTime) {
+        long key = SectionPos.asLong(pos);
+        forget(key, gameTime);
+
+        int localX = pos.getX() & 15;
+        int localY = pos.getY() & 15;
+        int localZ = pos.getZ() & 15;
+        if (localX == 0) forget(SectionPos.offset(key, Direction.WEST), gameTime);
+        if (localX == 15) forget(SectionPos.offset(key, Direction.EAST), gameTime);
+        if (localY == 0) forget(SectionPos.offset(key, Direction.DOWN), gameTime);
+        if (localY == 15) forget(SectionPos.offset(key, Direction.UP), gameTime);
+        if (localZ == 0) forget(SectionPos.offset(key, Direction.NORTH), gameTime);
+        if (localZ == 15) forget(SectionPos.offset(key, Direction.SOUTH), gameTime);
+    }
+
+    /**
+     * Drops a section's summary and notes when, if there was one.
+     */
+    private void forget(long key, long gameTime) {
+        if (sections.remove(key) == null)
+            return;
+
+        if (changedAt.size() >= MAX_CHANGES)
+            changedAt.values().removeIf(time -> gameTime - time > CHANGE_RETENTION);
+        changedAt.put(key, gameTime);
+    }
+
+    /**
+     * Block changes can open or close a section.
+     */
+    @SubscribeEvent
+    public static void onBlockEvent(BlockEvent event) {
+        if (!(event.getLevel() instanceof ServerLevel serverLevel))
+            return;
+
+        SectionGraph graph = GRAPHS.get(serverLevel.dimension());
+        if (graph != null)
+            graph.invalidate(event.getPos(), serverLevel.getGameTime());
+    }
+
+    /**
+     * Unloaded chunks can change without us hearing about it, so drop them.
+     */
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (!(event.getLevel() instanceof ServerLevel serverLevel))
+            return;
+
+        SectionGraph graph = GRAPHS.get(serverLevel.dimension());
+        if (graph == null)
+            return;
+
+        ChunkPos pos = event.getChunk().getPos();
+        for (int sectionY = serverLevel.getMinSection(); sectionY < serverLevel.getMaxSection(); sectionY++) {
+            graph.sections.remove(SectionPos.asLong(pos.x, sectionY, pos.z));
+        }
+    }
+
+    /**
+     * Drops the graph of a level that unloads.
+     */
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel)
+            GRAPHS.remove(serverLevel.dimension());
+    }
+
+    /**
+     * Summarizes one section: which sides have a standable cell next to an
+     * open cell across the border, and the standable cell closest to its
+     * center. All-air sections can be crossed in any direction (falling or
+     * climbing) but have nowhere to stand.
+     */
+    private static Section summarize(ServerLevel level, LevelChunk chunk, long sectionKey) {
+        int sectionY = SectionPos.y(sectionKey);
+        LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionY));
+        if (section.hasOnlyAir())
+            return new Section(0x3F, Section.NO_WAYPOINT, true);
+
+        int baseX = SectionPos.sectionToBlockCoord(SectionPos.x(sectionKey));
+        int baseY = SectionPos.sectionToBlockCoord(sectionY);
+        int baseZ = SectionPos.sectionToBlockCoord(SectionPos.z(sectionKey));
+
+        // Solidity of the section plus one layer above and below, [y + 1][z][x]
+        boolean[][][] solid = new boolean[18][16][16];
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int y = -1; y <= 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    BlockState state = (y >= 0 && y < 16)
+                            ? section.getBlockState(x, y, z)
+                            : chunk.getBlockState(cursor.set(baseX + x, baseY + y, baseZ + z));
+                    solid[y + 1][z][x] = state.getMaterial().isSolid();
+                }
+            }
+        }
+
+        int openSides = 0;
+        int waypoint = Section.NO_WAYPOINT;
+        int bestCenterDistance = Integer.MAX_VALUE;
+
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    boolean standable = solid[y][z][x] && !solid[y + 1][z][x] && !solid[y + 2][z][x];
+                    if (!standable)
+                        continue;
+
+                    int centerDistance = Math.abs(x - 8) + Math.abs(y - 8) + Math.abs(z - 8);
+                    if (centerDistance < bestCenterDistance) {
+                        bestCenterDistance = centerDistance;
+                        waypoint = y << 8 | z << 4 | x;
+                    }
+
+                    if (x == 0 && isOpenAcross(level, cursor, baseX - 1, baseY + y, baseZ + z))
+                        openSides |= 1 << Direction.WEST.ordinal();
+                    if (x == 15 && isOpenAcross(level, cursor, baseX + 16, baseY + y, baseZ + z))
+                        openSides |= 1 << Direction.EAST.ordinal();
+                    if (z == 0 && isOpenAcross(level, cursor, baseX + x, baseY + y, baseZ - 1))
+                        openSides |= 1 << Direction.NORTH.ordinal();
+                    if (z == 15 && isOpenAcross(level, cursor, baseX + x, baseY + y, baseZ + 16))
+                        openSides |= 1 << Direction.SOUTH.ordinal();
+                    if (y >= 14)
+                        openSides |= 1 << Direction.UP.ordinal(); // A step or climb leaves through the top
+                    if (y <= 1)
+                        openSides |= 1 << Direction.DOWN.ordinal(); // Standing on the floor below's top
+                }
+            }
+        }
+
+        return new Section(openSides, waypoint, true);
+    }
+
+    /**
+     * Checks if a mob standing next to the border could move into the cell
+     * across it, on the same level or one step up.
+     */
+    private static boolean isOpenAcross(ServerLevel level, BlockPos.MutableBlockPos cursor, int x, int y, int z) {
+        if (!level.hasChunkAt(cursor.set(x, y, z)))
+            return true; // Can't tell, let the route try
+
+        boolean feet = level.getBlockState(cursor).getMaterial().isSolid();
+        boolean head = level.getBlockState(cursor.set(x, y + 1, z)).getMaterial().isSolid();
+        if (!feet && !head)
+            return true;
+
+        // Step up onto the block across
+        return feet && !head && !level.getBlockState(cursor.set(x, y + 2, z)).getMaterial().isSolid();
+    }
+}
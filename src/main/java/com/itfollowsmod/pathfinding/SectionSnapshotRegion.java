@@ -0,0 +1,119 @@
+package com.itfollowsmod.pathfinding;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.profiling.InactiveProfiler;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.PathNavigationRegion;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.material.FluidState;
+
+import javax.annotation.Nullable;
+
+/**
+ * A PathNavigationRegion that owns copies of the block data of the sections
+ * in a box, taken on the server thread, so a path search can read it from a
+ * worker thread while the level keeps changing. Sections that were all air
+ * or not loaded are not copied and read as air. Block entities are not
+ * copied; the node evaluator only looks at block states.
+ */
+public class SectionSnapshotRegion extends PathNavigationRegion {
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+
+    private final int minSectionX;
+    private final int minSectionY;
+    private final int minSectionZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final PalettedContainer<BlockState>[] sections;
+
+    /**
+     * Copies the sections covering a box. Must run on the server thread.
+     *
+     * @param level The level.
+     * @param from  One corner of the box.
+     * @param to    The other corner.
+     */
+    @SuppressWarnings("unchecked")
+    public SectionSnapshotRegion(ServerLevel level, BlockPos from, BlockPos to) {
+        super(level, from, from); // Only capture one chunk; lookups are answered from the copies
+
+        this.minSectionX = SectionPos.blockToSectionCoord(Math.min(from.getX(), to.getX()));
+        this.minSectionY = Math.max(SectionPos.blockToSectionCoord(Math.min(from.getY(), to.getY())), level.getMinSection());
+        this.minSectionZ = SectionPos.blockToSectionCoord(Math.min(from.getZ(), to.getZ()));
+        int maxSectionY = Math.min(SectionPos.blockToSectionCoord(Math.max(from.getY(), to.getY())), level.getMaxSection() - 1);
+        this.sizeX = SectionPos.blockToSectionCoord(Math.max(from.getX(), to.getX())) - minSectionX + 1;
+        this.sizeY = Math.max(maxSectionY - minSectionY + 1, 0);
+        this.sizeZ = SectionPos.blockToSectionCoord(Math.max(from.getZ(), to.getZ())) - minSectionZ + 1;
+        this.sections = new PalettedContainer[sizeX * sizeY * sizeZ];
+
+        for (int x = 0; x < sizeX; x++) {
+            for (int z = 0; z < sizeZ; z++) {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(minSectionX + x, minSectionZ + z);
+                if (chunk == null)
+                    continue;
+
+                for (int y = 0; y < sizeY; y++) {
+                    LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(minSectionY + y));
+                    if (!section.hasOnlyAir())
+                        sections[index(x, y, z)] = section.getStates().copy();
+                }
+            }
+        }
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        int x = SectionPos.blockToSectionCoord(pos.getX()) - minSectionX;
+        int y = SectionPos.blockToSectionCoord(pos.getY()) - minSectionY;
+        int z = SectionPos.blockToSectionCoord(pos.getZ()) - minSectionZ;
+        if (x < 0 || y < 0 || z < 0 || x >= sizeX || y >= sizeY || z >= sizeZ)
+            return AIR;
+
+        PalettedContainer<BlockState> section = sections[index(x, y, z)];
+        if (section == null)
+            return AIR;
+        return section.get(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return getBlockState(pos).getFluidState();
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return null;
+    }
+
+    /**
+     * The path finder profiles through the region; the level's profiler
+     * belongs to the server thread.
+     */
+    @Override
+    public ProfilerFiller getProfiler() {
+        return InactiveProfiler.INSTANCE;
+    }
+
+    /**
+     * Collision checks read blocks through this region too, by world
+     * coordinates, instead of through the captured chunk.
+     */
+    @Override
+    public BlockGetter getChunkForCollisions(int chunkX, int chunkZ) {
+        return this;
+    }
+
+    private int index(int x, int y, int z) {
+        return (x * sizeZ + z) * sizeY + y;
+    }
+}
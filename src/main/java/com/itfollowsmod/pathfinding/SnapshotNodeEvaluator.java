@@ -0,0 +1,43 @@
+package com.itfollowsmod.pathfinding;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.pathfinder.Node;
+
+/**
+ * Node evaluator for searches that run on a worker thread. The start node is
+ * worked out on the server thread beforehand, and the mob it is prepared
+ * with is a detached copy owned by the search, so nothing here reads or
+ * writes the live mob. done() only lets go of the region and the copy;
+ * there is no water malus to put back on anyone.
+ */
+public class SnapshotNodeEvaluator extends StalkerNodeEvaluator {
+    private final BlockPos start;
+    private final boolean breakThrough;
+
+    /**
+     * Creates an evaluator for one search.
+     *
+     * @param start        The start cell, found on the server thread.
+     * @param breakThrough Whether paths may go through breakable blocks.
+     */
+    public SnapshotNodeEvaluator(BlockPos start, boolean breakThrough) {
+        this.start = start;
+        this.breakThrough = breakThrough;
+    }
+
+    @Override
+    public Node getStart() {
+        return getStartNode(start);
+    }
+
+    @Override
+    public void done() {
+        this.level = null;
+        this.mob = null;
+    }
+
+    @Override
+    protected boolean canBreakThrough() {
+        return breakThrough;
+    }
+}
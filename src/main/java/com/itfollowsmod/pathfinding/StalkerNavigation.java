@@ -0,0 +1,23 @@
+package com.itfollowsmod.pathfinding;
+
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.ai.navigation.WallClimberNavigation;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.pathfinder.PathFinder;
+
+/**
+ * The Stalker's navigation: wall climbing as before, with paths planned by
+ * a StalkerNodeEvaluator so they can lead through breakable blocks.
+ */
+public class StalkerNavigation extends WallClimberNavigation {
+    public StalkerNavigation(Mob mob, Level level) {
+        super(mob, level);
+    }
+
+    @Override
+    protected PathFinder createPathFinder(int maxVisitedNodes) {
+        this.nodeEvaluator = new StalkerNodeEvaluator();
+        this.nodeEvaluator.setCanPassDoors(true);
+        return new PathFinder(this.nodeEvaluator, maxVisitedNodes);
+    }
+}
@@ -0,0 +1,48 @@
+package com.itfollowsmod.pathfinding;
+
+import com.itfollowsmod.world.BreakabilityTable;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.pathfinder.BlockPathTypes;
+import net.minecraft.world.level.pathfinder.WalkNodeEvaluator;
+
+/**
+ * Walk node evaluator that knows the Stalker can break its way through soft
+ * blocks, doors, gates and walls. Cells the vanilla evaluator would reject
+ * as solid are reported as BREACH when the BreakabilityTable allows it,
+ * and the Stalker prices BREACH at the configured breakable path cost, so a
+ * path goes through a pane of glass instead of searching for a way around
+ * the house. Floors are still judged by the vanilla rules, so nothing is
+ * planned to stand on air.
+ */
+public class StalkerNodeEvaluator extends WalkNodeEvaluator {
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+    @Override
+    public BlockPathTypes getBlockPathType(BlockGetter level, int x, int y, int z) {
+        BlockPathTypes type = super.getBlockPathType(level, x, y, z);
+        if (!canBreakThrough() || !isObstacle(type))
+            return type;
+
+        return BreakabilityTable.isBreakable(level.getBlockState(cursor.set(x, y, z))) ? BlockPathTypes.BREACH : type;
+    }
+
+    /**
+     * Checks if paths may go through breakable blocks. Subclasses may turn
+     * it off to plan like a plain walking mob.
+     */
+    protected boolean canBreakThrough() {
+        return true;
+    }
+
+    /**
+     * Types that stop a walking mob but may be made of breakable blocks.
+     */
+    private static boolean isObstacle(BlockPathTypes type) {
+        return type == BlockPathTypes.BLOCKED
+                || type == BlockPathTypes.FENCE
+                || type == BlockPathTypes.LEAVES
+                || type == BlockPathTypes.DOOR_WOOD_CLOSED
+                || type == BlockPathTypes.DOOR_IRON_CLOSED;
+    }
+}
@@ -0,0 +1,103 @@
+package com.itfollowsmod.pathfinding;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
+
+/**
+ * Remembers where a target was over the last half second and predicts where
+ * a chaser can cut it off. Aiming paths at the intercept point instead of at
+ * the target itself keeps the path's goal still while the target runs, rides
+ * or sails in a straight line, so the follow goal can keep its path instead
+ * of replanning every time the target has moved a couple of blocks.
+ */
+public class TargetPredictor {
+    private static final int SAMPLES = 10; // Ring buffer length, one sample per tick
+    private static final int MAX_LEAD_TICKS = 60; // Never aim more than three seconds ahead
+    private static final double MIN_SPEED_SQR = 0.05 * 0.05; // Slower than this (blocks/tick) counts as standing
+
+    private final double[] xs = new double[SAMPLES];
+    private final double[] ys = new double[SAMPLES];
+    private final double[] zs = new double[SAMPLES];
+    private final long[] times = new long[SAMPLES];
+    private int head = 0; // Next slot to write
+    private int count = 0;
+    private Entity target = null;
+
+    /**
+     * Records the target's position for this tick. A new target starts a
+     * new history; a second call in the same tick is ignored.
+     *
+     * @param target   The entity being followed.
+     * @param gameTime The current game time.
+     */
+    public void record(Entity target, long gameTime) {
+        if (target != this.target) {
+            this.target = target;
+            count = 0;
+            head = 0;
+        } else if (count > 0 && times[(head + SAMPLES - 1) % SAMPLES] == gameTime) {
+            return;
+        }
+
+        xs[head] = target.getX();
+        ys[head] = target.getY();
+        zs[head] = target.getZ();
+        times[head] = gameTime;
+        head = (head + 1) % SAMPLES;
+        count = Math.min(count + 1, SAMPLES);
+    }
+
+    /**
+     * Predicts where a chaser moving straight at a given speed would meet
+     * the target, if the target keeps its average horizontal velocity over
+     * the recorded samples. A target standing still, or one that couldn't
+     * be caught, gives its current position or the furthest lead.
+     *
+     * @param chaser      The chasing entity.
+     * @param chaserSpeed The chaser's speed in blocks per tick.
+     * @return The block to aim for.
+     */
+    public BlockPos predictIntercept(Entity chaser, double chaserSpeed) {
+        if (target == null || count < 2)
+            return target != null ? target.blockPosition() : chaser.blockPosition();
+
+        int newest = (head + SAMPLES - 1) % SAMPLES;
+        int oldest = (head + SAMPLES - count) % SAMPLES;
+        double elapsed = times[newest] - times[oldest];
+        if (elapsed <= 0)
+            return target.blockPosition();
+
+        double vx = (xs[newest] - xs[oldest]) / elapsed;
+        double vz = (zs[newest] - zs[oldest]) / elapsed;
+        double velocitySqr = vx * vx + vz * vz;
+        if (velocitySqr < MIN_SPEED_SQR)
+            return target.blockPosition();
+
+        // Solve |r + v t| = s t for the earliest t > 0, with r from the chaser to the target
+        double rx = xs[newest] - chaser.getX();
+        double rz = zs[newest] - chaser.getZ();
+        double a = velocitySqr - chaserSpeed * chaserSpeed;
+        double b = 2.0 * (rx * vx + rz * vz);
+        double c = rx * rx + rz * rz;
+
+        double lead = MAX_LEAD_TICKS;
+        if (Math.abs(a) < 1.0E-6) {
+            if (b < 0)
+                lead = -c / b;
+        } else {
+            double discriminant = b * b - 4.0 * a * c;
+            if (discriminant >= 0) {
+                double root = Math.sqrt(discriminant);
+                double t1 = (-b - root) / (2.0 * a);
+                double t2 = (-b + root) / (2.0 * a);
+                double earliest = Math.min(t1, t2) > 0 ? Math.min(t1, t2) : Math.max(t1, t2);
+                if (earliest > 0)
+                    lead = earliest;
+            }
+        }
+        lead = Math.min(lead, MAX_LEAD_TICKS);
+
+        return new BlockPos(Mth.floor(xs[newest] + vx * lead), Mth.floor(ys[newest]), Mth.floor(zs[newest] + vz * lead));
+    }
+}
@@ -0,0 +1,97 @@
+package com.itfollowsmod.spawn;
+
+import com.itfollowsmod.ModConfig;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+
+import java.util.Random;
+
+/**
+ * Generates probe columns spread evenly over a ring around a point. Points
+ * come from the R2 low-discrepancy sequence, shifted by a random offset per
+ * search, and are mapped onto the ring so that every probe lands inside it
+ * with uniform density - no rejection, no lists, nothing allocated per probe.
+ */
+public class AnnulusSampler {
+    // R2 sequence steps, based on the plastic number
+    private static final double PLASTIC = 1.32471795724474602596;
+    private static final double STEP_U = 1.0 / PLASTIC;
+    private static final double STEP_V = 1.0 / (PLASTIC * PLASTIC);
+
+    private double offsetU;
+    private double offsetV;
+    private int index;
+    private double minRadiusSqr;
+    private double radiusSqrRange;
+
+    /**
+     * Starts a new sequence over the ring between the two radii.
+     *
+     * @param random      Source for this search's random offset.
+     * @param minDistance Inner radius in blocks.
+     * @param maxDistance Outer radius in blocks.
+     */
+    public void reset(Random random, int minDistance, int maxDistance) {
+        this.offsetU = random.nextDouble();
+        this.offsetV = random.nextDouble();
+        this.index = 0;
+        this.minRadiusSqr = (double) minDistance * minDistance;
+        this.radiusSqrRange = (double) maxDistance * maxDistance - this.minRadiusSqr;
+    }
+
+    /**
+     * Starts a new sequence over the configured spawn ring, between
+     * MINIMUM_SPAWN_DISTANCE and MAXIMUM_SPAWN_DISTANCE. When spawns are limited
+     * to loaded chunks the ring is pulled inside the server's view distance,
+     * since nothing beyond it is loaded.
+     *
+     * @param random Source for this search's random offset.
+     * @param world  The world the search runs in.
+     */
+    public void resetToSpawnRing(Random random, ServerLevel world) {
+        int minDistance = ModConfig.current().minimumSpawnDistance;
+        int maxDistance = getSpawnRingMax(world);
+        if (ModConfig.current().spawnOnlyLoadedChunks)
+            minDistance = Math.min(minDistance, maxDistance * 3 / 4);
+
+        reset(random, minDistance, maxDistance);
+    }
+
+    /**
+     * Gets the outer radius resetToSpawnRing uses: MAXIMUM_SPAWN_DISTANCE,
+     * pulled inside the view distance when spawns are limited to loaded
+     * chunks.
+     *
+     * @param world The world the search runs in.
+     * @return The radius in blocks.
+     */
+    public static int getSpawnRingMax(ServerLevel world) {
+        int maxDistance = ModConfig.current().maximumSpawnDistance;
+        if (ModConfig.current().spawnOnlyLoadedChunks)
+            maxDistance = Math.min(maxDistance, world.getServer().getPlayerList().getViewDistance() * 16);
+        return maxDistance;
+    }
+
+    /**
+     * Moves the cursor to the next probe column around the center. Only X and
+     * Z are meaningful.
+     *
+     * @param centerX The ring's center X.
+     * @param centerZ The ring's center Z.
+     * @param cursor  The position to overwrite.
+     * @return The cursor, for chaining.
+     */
+    public BlockPos.MutableBlockPos next(double centerX, double centerZ, BlockPos.MutableBlockPos cursor) {
+        index++;
+        double u = Mth.frac(offsetU + index * STEP_U);
+        double v = Mth.frac(offsetV + index * STEP_V);
+
+        // Uniform area density: the squared radius is uniform over the ring
+        double radius = Math.sqrt(minRadiusSqr + u * radiusSqrRange);
+        double angle = v * Math.PI * 2;
+
+        return cursor.set(Mth.floor(centerX + Math.cos(angle) * radius), 0,
+                Mth.floor(centerZ + Math.sin(angle) * radius));
+    }
+}
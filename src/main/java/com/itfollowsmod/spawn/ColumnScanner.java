@@ -0,0 +1,150 @@
+package com.itfollowsmod.spawn;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Walks block columns straight through the chunk's section data instead of
+ * going through the level for every block. Sections that are all air or all
+ * solid are handled without touching their blocks one by one.
+ */
+public class ColumnScanner {
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+    private static final Predicate<BlockState> NOT_SOLID = state -> !state.getMaterial().isSolid();
+
+    // The 24 columns of a 5x5 square around a player, minus the player's own column
+    private static final int[] ADJACENT_DX = new int[24];
+    private static final int[] ADJACENT_DZ = new int[24];
+    // Strides coprime to 24, so (start + i * stride) % 24 visits every column once
+    private static final int[] ADJACENT_STRIDES = { 1, 5, 7, 11, 13, 17, 19, 23 };
+
+    static {
+        int i = 0;
+        for (int x = -2; x <= 2; x++) {
+            for (int z = -2; z <= 2; z++) {
+                if (x == 0 && z == 0)
+                    continue; // Skip player's position
+                ADJACENT_DX[i] = x;
+                ADJACENT_DZ[i] = z;
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Searches a column downward for a cave spawn cell: no sky access, a solid
+     * non-liquid floor, and two non-solid blocks to stand in without liquid at
+     * the feet.
+     *
+     * @param world The world.
+     * @param chunk The chunk containing the column.
+     * @param x     The block X.
+     * @param z     The block Z.
+     * @return A valid spawn position, or null if none found.
+     */
+    public static BlockPos findCaveCell(ServerLevel world, LevelChunk chunk, int x, int z) {
+        // Start at surface height minus a bit
+        int y = chunk.getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, x & 15, z & 15) + 1 - 5;
+        int minY = world.getMinBuildHeight() + 5;
+        int localX = x & 15;
+        int localZ = z & 15;
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+        while (y > minY) {
+            int sectionIndex = chunk.getSectionIndex(y);
+            LevelChunkSection section = chunk.getSection(sectionIndex);
+            int sectionBottom = SectionPos.sectionToBlockCoord(chunk.getSectionYFromSectionIndex(sectionIndex));
+            int lowestY = Math.max(sectionBottom, minY + 1);
+
+            if (section.hasOnlyAir()) {
+                // Only the lowest cell can have a floor under it
+                BlockState below = stateAt(chunk, localX, lowestY - 1, localZ);
+                if (isCaveCell(below, AIR, AIR) && !world.canSeeSky(cursor.set(x, lowestY, z)))
+                    return cursor.immutable();
+                y = lowestY - 1;
+                continue;
+            }
+
+            if (!section.maybeHas(NOT_SOLID)) {
+                // Every block in here is solid, nowhere to stand
+                y = lowestY - 1;
+                continue;
+            }
+
+            BlockState above = stateAt(chunk, localX, y + 1, localZ);
+            BlockState feet = section.getBlockState(localX, y & 15, localZ);
+            for (; y >= lowestY; y--) {
+                BlockState below = (y & 15) == 0
+                        ? stateAt(chunk, localX, y - 1, localZ)
+                        : section.getBlockState(localX, (y - 1) & 15, localZ);
+
+                // Sky check last, it's the only one that leaves the chunk data
+                if (isCaveCell(below, feet, above) && !world.canSeeSky(cursor.set(x, y, z)))
+                    return cursor.immutable();
+
+                above = feet;
+                feet = below;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Picks a spawn position in the 5x5 square around a player. Columns are
+     * tried lazily in a random order and the first valid one wins.
+     *
+     * @param world  The world.
+     * @param center The player's position.
+     * @param random The random source.
+     * @return A valid spawn position, or null if none found.
+     */
+    public static BlockPos findAdjacentSpawnPos(ServerLevel world, BlockPos center, Random random) {
+        int start = random.nextInt(ADJACENT_DX.length);
+        int stride = ADJACENT_STRIDES[random.nextInt(ADJACENT_STRIDES.length)];
+        BlockPos.MutableBlockPos column = new BlockPos.MutableBlockPos();
+
+        for (int i = 0; i < ADJACENT_DX.length; i++) {
+            int index = (start + i * stride) % ADJACENT_DX.length;
+            column.set(center.getX() + ADJACENT_DX[index], 0, center.getZ() + ADJACENT_DZ[index]);
+
+            BlockPos spawnPos = SpawnLocator.getSpawnablePos(world, column);
+            if (spawnPos != null)
+                return spawnPos;
+        }
+
+        return null;
+    }
+
+    /**
+     * Same rules as the surface check: solid floor, free feet and head, no
+     * liquid at the feet or the floor.
+     */
+    private static boolean isCaveCell(BlockState below, BlockState feet, BlockState above) {
+        return below.getMaterial().isSolid() && !below.getMaterial().isLiquid()
+                && !feet.getMaterial().isSolid() && !feet.getMaterial().isLiquid()
+                && !above.getMaterial().isSolid();
+    }
+
+    /**
+     * Reads one block of the chunk, treating anything outside the build height
+     * as air.
+     */
+    private static BlockState stateAt(LevelChunk chunk, int localX, int y, int localZ) {
+        int sectionIndex = chunk.getSectionIndex(y);
+        if (sectionIndex < 0 || sectionIndex >= chunk.getSectionsCount())
+            return AIR;
+
+        LevelChunkSection section = chunk.getSection(sectionIndex);
+        return section.hasOnlyAir() ? AIR : section.getBlockState(localX, y & 15, localZ);
+    }
+}
@@ -0,0 +1,313 @@
+package com.itfollowsmod.spawn;
+
+import com.itfollowsmod.ItFollowsMod;
+import com.itfollowsmod.ModConfig;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.dimension.DimensionType;
+import net.minecraft.world.level.storage.LevelResource;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * On-disk version of the SpawnCandidateCache: the surface and cave spawn cell
+ * of every column where a scan found one, kept in memory-mapped region files
+ * under the dimension's data folder so they survive restarts. Answers are
+ * hints - SpawnLocator re-checks a stored cell before using it, and any block
+ * change in a column forgets it. "No cell here" is not kept: many changes
+ * (explosions, pistons, growing trees, /fill, chunk regeneration) fire no
+ * block event, and a negative answer can't be re-checked short of scanning
+ * the column again anyway.
+ */
+@Mod.EventBusSubscriber(modid = ItFollowsMod.MOD_ID)
+public class PersistentSpawnIndex {
+    private static final String FOLDER = "itfollowsmod_spawnindex";
+    private static final Pattern REGION_NAME = Pattern.compile("r\\.(-?\\d+)\\.(-?\\d+)\\.idx");
+    private static final int MAX_OPEN_REGIONS = 64;
+
+    private static final Map<ResourceKey<Level>, PersistentSpawnIndex> INDEXES = new HashMap<>();
+
+    private final Path directory;
+    private final int minBuildHeight;
+    private final Long2ObjectLinkedOpenHashMap<SpawnIndexRegion> openRegions = new Long2ObjectLinkedOpenHashMap<>();
+    private final LongOpenHashSet regionsOnDisk = new LongOpenHashSet();
+    private boolean failed = false; // Stop touching the disk after an I/O error
+
+    private PersistentSpawnIndex(Path directory, int minBuildHeight) {
+        this.directory = directory;
+        this.minBuildHeight = minBuildHeight;
+    }
+
+    /**
+     * Gets (or opens) the index of a level.
+     *
+     * @param world The level.
+     * @return The level's index, or null if the index is disabled.
+     */
+    public static PersistentSpawnIndex get(ServerLevel world) {
+        if (!ModConfig.current().enablePersistentSpawnIndex)
+            return null;
+
+        PersistentSpawnIndex index = INDEXES.get(world.dimension());
+        if (index == null) {
+            index = new PersistentSpawnIndex(getDirectory(world), world.getMinBuildHeight());
+            index.scanDirectory();
+            INDEXES.put(world.dimension(), index);
+        }
+
+        return index.failed ? null : index;
+    }
+
+    /**
+     * Gets a stored cell. NONE cells written by earlier versions are
+     * reported as UNKNOWN.
+     *
+     * @param x    The block X.
+     * @param z    The block Z.
+     * @param kind SpawnIndexRegion.SURFACE or SpawnIndexRegion.CAVE.
+     * @return The Y level, or SpawnCandidateCache.UNKNOWN.
+     */
+    public int get(int x, int z, int kind) {
+        SpawnIndexRegion region = getRegion(x >> 4, z >> 4, false);
+        if (region == null)
+            return SpawnCandidateCache.UNKNOWN;
+
+        int y = region.get(x >> 4, z >> 4, columnIndex(x, z), kind);
+        return y == SpawnCandidateCache.NONE ? SpawnCandidateCache.UNKNOWN : y;
+    }
+
+    /**
+     * Stores a cell. NONE forgets the cell, like UNKNOWN.
+     *
+     * @param x    The block X.
+     * @param z    The block Z.
+     * @param kind SpawnIndexRegion.SURFACE or SpawnIndexRegion.CAVE.
+     * @param y    The Y level, SpawnCandidateCache.NONE or SpawnCandidateCache.UNKNOWN.
+     */
+    public void put(int x, int z, int kind, int y) {
+        if (y == SpawnCandidateCache.NONE)
+            y = SpawnCandidateCache.UNKNOWN;
+        SpawnIndexRegion region = getRegion(x >> 4, z >> 4, y != SpawnCandidateCache.UNKNOWN);
+        if (region == null)
+            return;
+
+        try {
+            region.put(x >> 4, z >> 4, columnIndex(x, z), kind, y);
+        } catch (IOException e) {
+            fail("write to", e);
+        }
+    }
+
+    /**
+     * Forgets both cells of a column.
+     */
+    public void invalidateColumn(int x, int z) {
+        put(x, z, SpawnIndexRegion.SURFACE, SpawnCandidateCache.UNKNOWN);
+        put(x, z, SpawnIndexRegion.CAVE, SpawnCandidateCache.UNKNOWN);
+    }
+
+    /**
+     * Closes and deletes every region file of a level, leaving an empty index.
+     * Also lifts the block on an index that failed earlier. A file that can't
+     * be deleted because a closed region's mapping hasn't been collected yet
+     * (Windows keeps mapped files locked) is marked outdated instead, so it
+     * starts over the next time it is opened.
+     *
+     * @param world The level.
+     * @return The number of files cleared.
+     */
+    public static int clear(ServerLevel world) {
+        PersistentSpawnIndex index = INDEXES.remove(world.dimension());
+        if (index != null)
+            index.closeAll();
+
+        Path directory = getDirectory(world);
+        int cleared = 0;
+        try {
+            if (Files.isDirectory(directory)) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "r.*.idx")) {
+                    for (Path file : files) {
+                        try {
+                            Files.delete(file);
+                        } catch (IOException e) {
+                            SpawnIndexRegion.invalidate(file);
+                        }
+                        cleared++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            ItFollowsMod.LOGGER.error("[It Follows] Could not clear the spawn index in {}", directory, e);
+        }
+
+        return cleared;
+    }
+
+    /**
+     * Gets the number of region files the level has.
+     */
+    public int getRegionCount() {
+        return regionsOnDisk.size();
+    }
+
+    /**
+     * Gets the number of chunks stored in the regions that are open right now.
+     */
+    public int getOpenChunkCount() {
+        int chunks = 0;
+        for (SpawnIndexRegion region : openRegions.values()) {
+            chunks += region.getChunkCount();
+        }
+        return chunks;
+    }
+
+    /**
+     * Opens the index as soon as the level loads, so block changes are
+     * tracked from the start and not only once a spawn search needed it.
+     */
+    @SubscribeEvent
+    public static void onLevelLoad(LevelEvent.Load event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel)
+            get(serverLevel);
+    }
+
+    /**
+     * Block changes make the stored cells of the column meaningless.
+     */
+    @SubscribeEvent
+    public static void onBlockEvent(BlockEvent event) {
+        LevelAccessor level = event.getLevel();
+        if (!(level instanceof ServerLevel serverLevel))
+            return;
+
+        PersistentSpawnIndex index = get(serverLevel);
+        if (index != null)
+            index.invalidateColumn(event.getPos().getX(), event.getPos().getZ());
+    }
+
+    /**
+     * Writes the mapped pages out whenever the level saves.
+     */
+    @SubscribeEvent
+    public static void onLevelSave(LevelEvent.Save event) {
+        if (!(event.getLevel() instanceof ServerLevel serverLevel))
+            return;
+
+        PersistentSpawnIndex index = INDEXES.get(serverLevel.dimension());
+        if (index != null) {
+            for (SpawnIndexRegion region : index.openRegions.values()) {
+                region.flush();
+            }
+        }
+    }
+
+    /**
+     * Closes the level's region files when it unloads.
+     */
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (!(event.getLevel() instanceof ServerLevel serverLevel))
+            return;
+
+        PersistentSpawnIndex index = INDEXES.remove(serverLevel.dimension());
+        if (index != null)
+            index.closeAll();
+    }
+
+    /**
+     * Gets the region holding a chunk, opening its file if needed (or creating
+     * it, when asked to). The least recently used region is closed once too
+     * many are open.
+     */
+    private SpawnIndexRegion getRegion(int chunkX, int chunkZ, boolean create) {
+        if (failed)
+            return null;
+
+        int regionX = chunkX >> 5;
+        int regionZ = chunkZ >> 5;
+        long key = ChunkPos.asLong(regionX, regionZ);
+
+        SpawnIndexRegion region = openRegions.getAndMoveToLast(key);
+        if (region != null || (!create && !regionsOnDisk.contains(key)))
+            return region;
+
+        try {
+            while (openRegions.size() >= MAX_OPEN_REGIONS) {
+                openRegions.removeFirst().close();
+            }
+
+            Files.createDirectories(directory);
+            region = SpawnIndexRegion.open(directory.resolve("r." + regionX + "." + regionZ + ".idx"), minBuildHeight);
+            openRegions.putAndMoveToLast(key, region);
+            regionsOnDisk.add(key);
+            return region;
+        } catch (IOException e) {
+            fail("open", e);
+            return null;
+        }
+    }
+
+    /**
+     * Notes which region files exist, so lookups in regions that were never
+     * written don't have to ask the file system.
+     */
+    private void scanDirectory() {
+        if (!Files.isDirectory(directory))
+            return;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "r.*.idx")) {
+            for (Path file : files) {
+                Matcher matcher = REGION_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches())
+                    regionsOnDisk.add(ChunkPos.asLong(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        } catch (IOException e) {
+            fail("list", e);
+        }
+    }
+
+    /**
+     * Gets the index folder inside the dimension's data folder.
+     */
+    private static Path getDirectory(ServerLevel world) {
+        Path worldRoot = world.getServer().getWorldPath(LevelResource.ROOT);
+        return DimensionType.getStorageFolder(world.dimension(), worldRoot).resolve("data").resolve(FOLDER);
+    }
+
+    private void closeAll() {
+        for (SpawnIndexRegion region : openRegions.values()) {
+            try {
+                region.close();
+            } catch (IOException e) {
+                ItFollowsMod.LOGGER.warn("[It Follows] Could not close spawn index region in {}", directory, e);
+            }
+        }
+        openRegions.clear();
+    }
+
+    private void fail(String action, IOException e) {
+        ItFollowsMod.LOGGER.error("[It Follows] Could not {} the spawn index in {}, disabling it until the level reloads", action, directory, e);
+        failed = true;
+        closeAll();
+    }
+
+    private static int columnIndex(int x, int z) {
+        return (x & 15) << 4 | (z & 15);
+    }
+}
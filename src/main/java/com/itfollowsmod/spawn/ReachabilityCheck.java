@@ -0,0 +1,254 @@
+package com.itfollowsmod.spawn;
+
+import com.itfollowsmod.pathfinding.SectionGraph;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+import java.util.PriorityQueue;
+
+/**
+ * Cheap test of whether a Stalker placed at a spawn candidate could walk to
+ * its player, so respawns stop landing in sealed caves and on islands
+ * (which isStuck then notices three checks later, and the search starts
+ * over). Two bounded steps: a small flood fill around the candidate, to
+ * reject pockets it can't leave, then an A* search over the SectionGraph
+ * toward the player's section, keeping to sections with somewhere to stand.
+ * The section budget grows with the distance, so a candidate 15 sections
+ * away gets as fair a chance as one next door.
+ *
+ * A Search can be run to the end at once, or a few sections at a time over
+ * several ticks, waiting whenever the graph has summarized all it may this
+ * tick.
+ */
+public class ReachabilityCheck {
+    private static final int POCKET_CELLS = 128; // Reaching this many cells means the candidate isn't boxed in
+    private static final int BASE_SECTIONS = 64; // Sections the coarse search may look at, plus...
+    private static final int SECTIONS_PER_DISTANCE = 8; // ...this many per section between candidate and player
+    private static final int[] STEP_DY = {0, 1, -1};
+
+    /**
+     * Checks if the player can be reached from a candidate position, in one
+     * go. Sections the graph has no budget left to summarize this tick are
+     * assumed open.
+     *
+     * @param world     The world.
+     * @param candidate The spawn position (feet).
+     * @param target    The player's position.
+     * @return True if the candidate is open and connected to the target.
+     */
+    public static boolean isReachable(ServerLevel world, BlockPos candidate, BlockPos target) {
+        Search search = new Search(world, candidate, target);
+        while (!search.isDone()) {
+            search.step(world, Integer.MAX_VALUE, false);
+        }
+        return search.isReachable();
+    }
+
+    /**
+     * One candidate's check, resumable across ticks.
+     */
+    public static class Search {
+        private final ResourceKey<Level> dimension;
+        private final BlockPos candidate;
+        private final long start;
+        private final long goal;
+        private final int maxExpanded;
+        private final Long2IntOpenHashMap cost = new Long2IntOpenHashMap();
+        // Entries are {cost + heuristic, heuristic, section}; ties go to the one closer to the goal
+        private final PriorityQueue<long[]> open = new PriorityQueue<>((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        private boolean pocketChecked = false;
+        private int expanded = 0;
+        private boolean done = false;
+        private boolean reachable = false;
+
+        /**
+         * Sets up a check. Nothing is looked at until the first step.
+         *
+         * @param world     The world.
+         * @param candidate The spawn position (feet).
+         * @param target    The player's position.
+         */
+        public Search(ServerLevel world, BlockPos candidate, BlockPos target) {
+            this.dimension = world.dimension();
+            this.candidate = candidate.immutable();
+            this.start = SectionPos.asLong(candidate);
+            this.goal = SectionPos.asLong(target);
+            this.maxExpanded = BASE_SECTIONS + SECTIONS_PER_DISTANCE * heuristic(start, goal);
+            this.cost.defaultReturnValue(Integer.MAX_VALUE);
+            this.cost.put(start, 0);
+            this.open.add(new long[]{heuristic(start, goal), heuristic(start, goal), start});
+        }
+
+        /**
+         * Gets the candidate being checked.
+         */
+        public BlockPos getCandidate() {
+            return candidate;
+        }
+
+        /**
+         * Checks if the answer is known.
+         */
+        public boolean isDone() {
+            return done;
+        }
+
+        /**
+         * Gets the answer, once done.
+         */
+        public boolean isReachable() {
+            return reachable;
+        }
+
+        /**
+         * Gets the number of sections looked at so far.
+         */
+        public int getExpanded() {
+            return expanded;
+        }
+
+        /**
+         * Carries on with the check: the pocket test first, then up to a
+         * number of sections.
+         *
+         * @param world              The world.
+         * @param maxSteps           Sections to look at at most.
+         * @param waitForSummaries   Stop once the graph may summarize no more
+         *                           sections this tick, instead of assuming
+         *                           the rest open.
+         * @return False if it stopped to wait for the graph's budget.
+         */
+        public boolean step(ServerLevel world, int maxSteps, boolean waitForSummaries) {
+            if (done)
+                return true;
+            if (world.dimension() != dimension) {
+                finish(false); // The player changed dimension meanwhile
+                return true;
+            }
+
+            if (!pocketChecked) {
+                pocketChecked = true;
+                if (isEnclosed(world, candidate)) {
+                    finish(false);
+                    return true;
+                }
+            }
+            if (start == goal) {
+                finish(true);
+                return true;
+            }
+
+            SectionGraph graph = SectionGraph.get(world);
+            for (int steps = 0; steps < maxSteps; steps++) {
+                if (open.isEmpty() || expanded >= maxExpanded) {
+                    finish(false);
+                    return true;
+                }
+                if (waitForSummaries && !graph.hasSummaryBudget(world))
+                    return false;
+
+                long[] entry = open.poll();
+                long current = entry[2];
+                int currentCost = cost.get(current);
+                if (entry[0] > currentCost + entry[1])
+                    continue; // Stale queue entry
+                expanded++;
+
+                SectionGraph.Section summary = graph.getSection(world, current);
+                if (summary == null)
+                    continue;
+
+                for (Direction side : Direction.values()) {
+                    if (!summary.isOpen(side))
+                        continue;
+
+                    long neighbor = SectionPos.offset(current, side);
+                    if (neighbor == goal) {
+                        finish(true);
+                        return true;
+                    }
+                    if (currentCost + 1 >= cost.get(neighbor))
+                        continue;
+
+                    SectionGraph.Section neighborSummary = graph.getSection(world, neighbor);
+                    if (neighborSummary == null || !neighborSummary.isRoutable())
+                        continue;
+
+                    int h = heuristic(neighbor, goal);
+                    cost.put(neighbor, currentCost + 1);
+                    open.add(new long[]{currentCost + 1 + h, h, neighbor});
+                }
+            }
+            return true;
+        }
+
+        private void finish(boolean reachable) {
+            this.done = true;
+            this.reachable = reachable;
+            this.open.clear();
+        }
+    }
+
+    private static int heuristic(long a, long b) {
+        return Math.abs(SectionPos.x(a) - SectionPos.x(b))
+                + Math.abs(SectionPos.y(a) - SectionPos.y(b))
+                + Math.abs(SectionPos.z(a) - SectionPos.z(b));
+    }
+
+    /**
+     * Flood fills the standable cells around the candidate and reports if
+     * they run out before POCKET_CELLS are found.
+     */
+    private static boolean isEnclosed(ServerLevel world, BlockPos candidate) {
+        LongOpenHashSet visited = new LongOpenHashSet();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        visited.add(candidate.asLong());
+        queue.enqueue(candidate.asLong());
+
+        while (!queue.isEmpty()) {
+            if (visited.size() >= POCKET_CELLS)
+                return false;
+
+            long cell = queue.dequeueLong();
+            int x = BlockPos.getX(cell);
+            int y = BlockPos.getY(cell);
+            int z = BlockPos.getZ(cell);
+            for (Direction direction : Direction.Plane.HORIZONTAL) {
+                int nx = x + direction.getStepX();
+                int nz = z + direction.getStepZ();
+                for (int dy : STEP_DY) {
+                    long neighbor = BlockPos.asLong(nx, y + dy, nz);
+                    if (visited.contains(neighbor) || !isStandable(world, cursor, nx, y + dy, nz))
+                        continue;
+
+                    visited.add(neighbor);
+                    queue.enqueue(neighbor);
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Feet and head free and a floor to stand on. Unloaded cells count as
+     * open, since the Stalker may still get there once they load.
+     */
+    private static boolean isStandable(ServerLevel world, BlockPos.MutableBlockPos cursor, int x, int y, int z) {
+        if (!world.hasChunkAt(cursor.set(x, y, z)))
+            return true;
+        if (world.getBlockState(cursor).getMaterial().blocksMotion())
+            return false;
+        if (world.getBlockState(cursor.set(x, y + 1, z)).getMaterial().blocksMotion())
+            return false;
+        return world.getBlockState(cursor.set(x, y - 1, z)).getMaterial().blocksMotion();
+    }
+}
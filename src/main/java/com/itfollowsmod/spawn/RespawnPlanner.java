@@ -0,0 +1,195 @@
+package com.itfollowsmod.spawn;
+
+import com.itfollowsmod.ItFollowsMod;
+import com.itfollowsmod.ModConfig;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Keeps a ready-made respawn position for every player a Stalker is following.
+ * The search runs a few columns at a time at the end of each level tick, under
+ * a small time budget, so that respawnNearby() only has to teleport. With
+ * respawn reachability validation on, a column only becomes the plan once
+ * ReachabilityCheck finds a way from it to the player; that check is carried
+ * over ticks as well, and no new columns are probed while one is running.
+ */
+@Mod.EventBusSubscriber(modid = ItFollowsMod.MOD_ID)
+public class RespawnPlanner {
+    private static final int MAX_PROBES_PER_PLAYER = 10; // Columns per player per tick, on top of the time budget
+    private static final long MAX_PLAN_AGE = 1200; // 1 minute, then the spot is searched again
+    private static final long TRACKING_TIMEOUT = 600; // Forget players no Stalker asked about for 30 seconds
+    private static final double MAX_ANCHOR_DRIFT_SQR = 32.0 * 32.0; // Player moved too far from where we searched
+    private static final int CHECK_SECTIONS_PER_STEP = 8; // Reachability sections between deadline checks
+
+    private static final Map<UUID, PlannedSpawn> PLANS = new HashMap<>();
+    private static final Random random = new Random();
+    private static final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+    /**
+     * A candidate position for one player, plus where the player was when it
+     * was found.
+     */
+    private static class PlannedSpawn {
+        private ResourceKey<Level> dimension;
+        private BlockPos candidate;
+        private double anchorX;
+        private double anchorZ;
+        private long plannedAt;
+        private long lastRequested;
+        private boolean searching;
+        private ReachabilityCheck.Search check; // Reachability of the last spawnable column, if still running
+        private final AnnulusSampler sampler = new AnnulusSampler(); // Carries on where the last tick stopped
+    }
+
+    /**
+     * Asks the planner to keep a respawn position ready for the given player.
+     * Called by the Stalker whenever it refreshes its target.
+     *
+     * @param player The player being followed.
+     */
+    public static void track(Player player) {
+        if (player.level.isClientSide)
+            return;
+
+        PlannedSpawn plan = PLANS.computeIfAbsent(player.getUUID(), uuid -> new PlannedSpawn());
+        plan.lastRequested = player.level.getGameTime();
+    }
+
+    /**
+     * Hands out the planned position for a player, if there is a fresh one and
+     * it is still free. The plan is consumed either way so a new one gets
+     * searched on the following ticks.
+     *
+     * @param world  The world.
+     * @param player The player to respawn near.
+     * @return A checked spawn position, or null if none is ready.
+     */
+    public static BlockPos take(ServerLevel world, Player player) {
+        PlannedSpawn plan = PLANS.get(player.getUUID());
+        if (plan == null || plan.candidate == null)
+            return null;
+
+        BlockPos candidate = plan.candidate;
+        boolean usable = plan.dimension == world.dimension() && !isStale(plan, player, world.getGameTime());
+        plan.candidate = null;
+
+        if (!usable || !SpawnLocator.isStillSpawnable(world, candidate)) {
+            if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Planned respawn at {} is no longer usable", candidate);
+            return null;
+        }
+
+        return candidate;
+    }
+
+    /**
+     * Refreshes missing or stale plans at the end of every server level tick,
+     * stopping as soon as the configured time budget is spent.
+     */
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || !(event.level instanceof ServerLevel serverLevel))
+            return;
+        if (PLANS.isEmpty() || !ModConfig.current().enableRespawnPlanner)
+            return;
+
+        long now = serverLevel.getGameTime();
+        long deadline = System.nanoTime() + ModConfig.current().respawnPlannerBudgetMicros * 1000L;
+
+        for (ServerPlayer player : serverLevel.players()) {
+            PlannedSpawn plan = PLANS.get(player.getUUID());
+            if (plan == null)
+                continue;
+
+            if (now - plan.lastRequested > TRACKING_TIMEOUT) {
+                PLANS.remove(player.getUUID());
+                continue;
+            }
+
+            if (plan.candidate != null && plan.dimension == serverLevel.dimension() && !isStale(plan, player, now))
+                continue;
+
+            plan.candidate = null;
+            if (!plan.searching) {
+                plan.sampler.resetToSpawnRing(random, serverLevel);
+                plan.searching = true;
+            }
+
+            for (int probe = 0; probe < MAX_PROBES_PER_PLAYER; probe++) {
+                if (System.nanoTime() >= deadline)
+                    return;
+
+                if (plan.check == null) {
+                    BlockPos found = SpawnLocator.getSpawnablePos(serverLevel,
+                            plan.sampler.next(player.getX(), player.getZ(), cursor));
+                    if (found == null)
+                        continue;
+                    if (!ModConfig.current().validateRespawnReachability) {
+                        accept(plan, serverLevel, player, found, now);
+                        break;
+                    }
+                    plan.check = new ReachabilityCheck.Search(serverLevel, found, player.blockPosition());
+                }
+
+                ReachabilityCheck.Search check = plan.check;
+                while (!check.isDone() && System.nanoTime() < deadline) {
+                    if (!check.step(serverLevel, CHECK_SECTIONS_PER_STEP, true))
+                        break;
+                }
+                if (!check.isDone())
+                    break; // Out of time or section summaries, carry on next tick
+
+                plan.check = null;
+                if (check.isReachable()) {
+                    accept(plan, serverLevel, player, check.getCandidate(), now);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes a checked column the player's plan.
+     */
+    private static void accept(PlannedSpawn plan, ServerLevel serverLevel, Player player, BlockPos found, long now) {
+        plan.dimension = serverLevel.dimension();
+        plan.candidate = found;
+        plan.anchorX = player.getX();
+        plan.anchorZ = player.getZ();
+        plan.plannedAt = now;
+        plan.searching = false;
+    }
+
+    /**
+     * Drops the plan of a player who left the server.
+     */
+    @SubscribeEvent
+    public static void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        PLANS.remove(event.getEntity().getUUID());
+    }
+
+    /**
+     * A plan is stale once it is old or the player has walked away from the
+     * spot it was searched around.
+     */
+    private static boolean isStale(PlannedSpawn plan, Player player, long now) {
+        if (now - plan.plannedAt > MAX_PLAN_AGE)
+            return true;
+
+        double dx = player.getX() - plan.anchorX;
+        double dz = player.getZ() - plan.anchorZ;
+        return dx * dx + dz * dz > MAX_ANCHOR_DRIFT_SQR;
+    }
+}
@@ -0,0 +1,176 @@
+package com.itfollowsmod.spawn;
+
+import com.itfollowsmod.ItFollowsMod;
+import com.itfollowsmod.ModConfig;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers the surface and cave spawn cell of every column SpawnLocator has
+ * looked at, per chunk. Chunks are evicted least recently used first, columns
+ * are forgotten as soon as a block in them changes, and whole chunks when they
+ * unload.
+ */
+@Mod.EventBusSubscriber(modid = ItFollowsMod.MOD_ID)
+public class SpawnCandidateCache {
+    public static final int UNKNOWN = Integer.MIN_VALUE; // Column hasn't been checked yet
+    public static final int NONE = Integer.MIN_VALUE + 1; // Column was checked and has no valid cell
+
+    private static final Map<ResourceKey<Level>, Long2ObjectLinkedOpenHashMap<ChunkColumns>> LEVELS = new HashMap<>();
+
+    /**
+     * Cached answers for the 16x16 columns of one chunk.
+     */
+    private static class ChunkColumns {
+        private final int[] surfaceY = new int[256];
+        private final int[] caveY = new int[256];
+
+        private ChunkColumns() {
+            Arrays.fill(surfaceY, UNKNOWN);
+            Arrays.fill(caveY, UNKNOWN);
+        }
+    }
+
+    /**
+     * Gets the cached surface spawn Y of a column.
+     *
+     * @return The Y level, NONE if the column has no surface spawn, or UNKNOWN.
+     */
+    public static int getSurfaceY(ServerLevel world, int x, int z) {
+        ChunkColumns columns = getColumns(world, x, z, false);
+        return columns == null ? UNKNOWN : columns.surfaceY[columnIndex(x, z)];
+    }
+
+    /**
+     * Gets the cached cave spawn Y of a column.
+     *
+     * @return The Y level, NONE if the column has no cave spawn, or UNKNOWN.
+     */
+    public static int getCaveY(ServerLevel world, int x, int z) {
+        ChunkColumns columns = getColumns(world, x, z, false);
+        return columns == null ? UNKNOWN : columns.caveY[columnIndex(x, z)];
+    }
+
+    /**
+     * Stores the surface spawn Y (or NONE) of a column.
+     */
+    public static void putSurfaceY(ServerLevel world, int x, int z, int y) {
+        ChunkColumns columns = getColumns(world, x, z, true);
+        if (columns != null)
+            columns.surfaceY[columnIndex(x, z)] = y;
+    }
+
+    /**
+     * Stores the cave spawn Y (or NONE) of a column.
+     */
+    public static void putCaveY(ServerLevel world, int x, int z, int y) {
+        ChunkColumns columns = getColumns(world, x, z, true);
+        if (columns != null)
+            columns.caveY[columnIndex(x, z)] = y;
+    }
+
+    /**
+     * Forgets a single column, e.g. after a block in it changed.
+     */
+    public static void invalidateColumn(LevelAccessor level, int x, int z) {
+        if (!(level instanceof ServerLevel serverLevel))
+            return;
+
+        Long2ObjectLinkedOpenHashMap<ChunkColumns> chunks = LEVELS.get(serverLevel.dimension());
+        if (chunks == null)
+            return;
+
+        ChunkColumns columns = chunks.get(ChunkPos.asLong(x >> 4, z >> 4));
+        if (columns != null) {
+            int index = columnIndex(x, z);
+            columns.surfaceY[index] = UNKNOWN;
+            columns.caveY[index] = UNKNOWN;
+        }
+    }
+
+    /**
+     * Forgets everything cached for a level.
+     */
+    public static void clear(ServerLevel world) {
+        LEVELS.remove(world.dimension());
+    }
+
+    /**
+     * Any block change (break, place, neighbor notify, fluid...) invalidates
+     * the column it happened in.
+     */
+    @SubscribeEvent
+    public static void onBlockEvent(BlockEvent event) {
+        invalidateColumn(event.getLevel(), event.getPos().getX(), event.getPos().getZ());
+    }
+
+    /**
+     * Unloaded chunks can change without us hearing about it, so drop them.
+     */
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (!(event.getLevel() instanceof ServerLevel serverLevel))
+            return;
+
+        Long2ObjectLinkedOpenHashMap<ChunkColumns> chunks = LEVELS.get(serverLevel.dimension());
+        if (chunks != null)
+            chunks.remove(event.getChunk().getPos().toLong());
+    }
+
+    /**
+     * Drops everything cached for a level when it unloads.
+     */
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel)
+            LEVELS.remove(serverLevel.dimension());
+    }
+
+    /**
+     * Looks up the entry for the chunk containing a column, marking it as most
+     * recently used and optionally creating it (evicting the least recently
+     * used chunk when full).
+     */
+    private static ChunkColumns getColumns(ServerLevel world, int x, int z, boolean create) {
+        int maxChunks = ModConfig.current().spawnCacheMaxChunks;
+        if (maxChunks <= 0)
+            return null; // Cache disabled
+
+        long key = ChunkPos.asLong(x >> 4, z >> 4);
+        Long2ObjectLinkedOpenHashMap<ChunkColumns> chunks = LEVELS.get(world.dimension());
+        if (chunks == null) {
+            if (!create)
+                return null;
+            chunks = new Long2ObjectLinkedOpenHashMap<>();
+            LEVELS.put(world.dimension(), chunks);
+        }
+
+        ChunkColumns columns = chunks.getAndMoveToLast(key);
+        if (columns == null && create) {
+            while (chunks.size() >= maxChunks) {
+                chunks.removeFirst();
+            }
+            columns = new ChunkColumns();
+            chunks.putAndMoveToLast(key, columns);
+        }
+
+        return columns;
+    }
+
+    private static int columnIndex(int x, int z) {
+        return (x & 15) << 4 | (z & 15);
+    }
+}
@@ -0,0 +1,209 @@
+package com.itfollowsmod.spawn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped file of the persistent spawn index, covering 32x32
+ * chunks. Chunks get a 1 KiB block the first time one of their columns is
+ * stored, so only chunks a Stalker actually searched take up disk space.
+ *
+ * Layout (big endian):
+ * <pre>
+ * 0     int   MAGIC
+ * 4     int   VERSION
+ * 8     int   min build height the cells are stored against
+ * 12    int   number of chunk blocks in use
+ * 16    int[1024] block number + 1 of every chunk, 0 = none yet
+ * 4112  chunk blocks: 256 columns x (surface, cave) as unsigned shorts
+ * </pre>
+ * A cell value of 0 means unknown, 1 means checked with no valid cell, and
+ * anything else is the spawn Y minus the min build height, plus 2.
+ */
+public class SpawnIndexRegion {
+    public static final int MAGIC = 0x49465349; // "IFSI"
+    public static final int VERSION = 1;
+
+    public static final int SURFACE = 0;
+    public static final int CAVE = 1;
+
+    private static final int CHUNKS = 32 * 32;
+    private static final int SLOT_TABLE_OFFSET = 16;
+    private static final int DATA_OFFSET = SLOT_TABLE_OFFSET + CHUNKS * 4;
+    private static final int BLOCK_SIZE = 256 * 2 * 2;
+    private static final int INITIAL_BLOCKS = 16;
+
+    private static final int UNKNOWN_CELL = 0;
+    private static final int NONE_CELL = 1;
+
+    private final FileChannel channel;
+    private final int minBuildHeight;
+    private MappedByteBuffer buffer;
+
+    private SpawnIndexRegion(FileChannel channel, MappedByteBuffer buffer, int minBuildHeight) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.minBuildHeight = minBuildHeight;
+    }
+
+    /**
+     * Opens (or creates) a region file. A file written by another format
+     * version or for another build height is started over in place. Files are
+     * never truncated: a stale mapping of the same file may still be around
+     * until it is collected, and Windows refuses to shrink a mapped file.
+     *
+     * @param file           The region file.
+     * @param minBuildHeight The level's min build height.
+     * @return The opened region.
+     * @throws IOException If the file can't be opened or mapped.
+     */
+    public static SpawnIndexRegion open(Path file, int minBuildHeight) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(size, DATA_OFFSET + (long) INITIAL_BLOCKS * BLOCK_SIZE));
+            if (size >= DATA_OFFSET && buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION
+                    && buffer.getInt(8) == minBuildHeight && DATA_OFFSET + (long) buffer.getInt(12) * BLOCK_SIZE <= size)
+                return new SpawnIndexRegion(channel, buffer, minBuildHeight);
+
+            // New, outdated or damaged file: empty the slot table, blocks are zeroed as they are handed out
+            for (int offset = 0; offset < DATA_OFFSET; offset += 4) {
+                buffer.putInt(offset, 0);
+            }
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, minBuildHeight);
+            return new SpawnIndexRegion(channel, buffer, minBuildHeight);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Marks a region file as outdated without deleting it, for when it can't
+     * be deleted because it is still mapped. The next open starts it over.
+     *
+     * @param file The region file.
+     * @throws IOException If the file can't be written.
+     */
+    public static void invalidate(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4), 0);
+        }
+    }
+
+    /**
+     * Reads a cell.
+     *
+     * @param chunkX The chunk X.
+     * @param chunkZ The chunk Z.
+     * @param column The column inside the chunk (0-255).
+     * @param kind   SURFACE or CAVE.
+     * @return The Y level, SpawnCandidateCache.NONE or SpawnCandidateCache.UNKNOWN.
+     */
+    public int get(int chunkX, int chunkZ, int column, int kind) {
+        int block = buffer.getInt(slotOffset(chunkX, chunkZ));
+        if (block == 0)
+            return SpawnCandidateCache.UNKNOWN;
+
+        int cell = buffer.getShort(cellOffset(block - 1, column, kind)) & 0xFFFF;
+        if (cell == UNKNOWN_CELL)
+            return SpawnCandidateCache.UNKNOWN;
+        if (cell == NONE_CELL)
+            return SpawnCandidateCache.NONE;
+        return cell - 2 + minBuildHeight;
+    }
+
+    /**
+     * Writes a cell, giving the chunk a block if it has none yet.
+     *
+     * @param chunkX The chunk X.
+     * @param chunkZ The chunk Z.
+     * @param column The column inside the chunk (0-255).
+     * @param kind   SURFACE or CAVE.
+     * @param y      The Y level, SpawnCandidateCache.NONE or SpawnCandidateCache.UNKNOWN.
+     * @throws IOException If the file had to grow and couldn't.
+     */
+    public void put(int chunkX, int chunkZ, int column, int kind, int y) throws IOException {
+        int slotOffset = slotOffset(chunkX, chunkZ);
+        int block = buffer.getInt(slotOffset);
+        if (block == 0) {
+            if (y == SpawnCandidateCache.UNKNOWN)
+                return; // Nothing to forget
+
+            block = allocateBlock();
+            buffer.putInt(slotOffset, block + 1);
+        } else {
+            block--;
+        }
+
+        int cell;
+        if (y == SpawnCandidateCache.UNKNOWN) {
+            cell = UNKNOWN_CELL;
+        } else if (y == SpawnCandidateCache.NONE) {
+            cell = NONE_CELL;
+        } else {
+            cell = y - minBuildHeight + 2;
+        }
+        buffer.putShort(cellOffset(block, column, kind), (short) cell);
+    }
+
+    /**
+     * Gets the number of chunks with stored cells.
+     */
+    public int getChunkCount() {
+        return buffer.getInt(12);
+    }
+
+    /**
+     * Writes changed pages back to disk.
+     */
+    public void flush() {
+        buffer.force();
+    }
+
+    /**
+     * Flushes and closes the file. The mapping itself goes away once the
+     * buffer is collected.
+     */
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    /**
+     * Hands out the next chunk block, doubling the mapping when it's full.
+     * The block is zeroed (all unknown) first, since a file that was started
+     * over in place still holds its old blocks.
+     */
+    private int allocateBlock() throws IOException {
+        int count = buffer.getInt(12);
+        long needed = DATA_OFFSET + (long) (count + 1) * BLOCK_SIZE;
+        if (needed > buffer.capacity()) {
+            long blocks = Math.min(Math.max(count * 2L, INITIAL_BLOCKS), CHUNKS);
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, DATA_OFFSET + blocks * BLOCK_SIZE);
+        }
+
+        int offset = DATA_OFFSET + count * BLOCK_SIZE;
+        for (int i = 0; i < BLOCK_SIZE; i += 8) {
+            buffer.putLong(offset + i, 0L);
+        }
+        buffer.putInt(12, count + 1);
+        return count;
+    }
+
+    private static int slotOffset(int chunkX, int chunkZ) {
+        return SLOT_TABLE_OFFSET + ((chunkZ & 31) << 5 | (chunkX & 31)) * 4;
+    }
+
+    private static int cellOffset(int block, int column, int kind) {
+        return DATA_OFFSET + block * BLOCK_SIZE + (column * 2 + kind) * 2;
+    }
+}
@@ -0,0 +1,223 @@
+package com.itfollowsmod.spawn;
+
+import com.itfollowsmod.ItFollowsMod;
+import com.itfollowsmod.ModConfig;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+/**
+ * Column checks shared by everything that needs to place the Stalker: the
+ * entity's own respawn logic and the background respawn planner.
+ */
+public class SpawnLocator {
+    private static long forcedChunkLoads = 0; // Chunk loads triggered by spawn searches
+
+    /**
+     * Gets a valid Y position for the given X,Z coordinates.
+     * Tries both surface and cave positions. Whether unloaded chunks may be
+     * loaded for this is up to the onlyLoadedChunks setting.
+     * 
+     * @param world The world.
+     * @param pos   The X,Z position.
+     * @return A valid spawn position, or null if none found.
+     */
+    public static BlockPos getSpawnablePos(ServerLevel world, BlockPos pos) {
+        return getSpawnablePos(world, pos, !ModConfig.current().spawnOnlyLoadedChunks);
+    }
+
+    /**
+     * Gets a valid Y position for the given X,Z coordinates.
+     * Tries both surface and cave positions.
+     * 
+     * @param world     The world.
+     * @param pos       The X,Z position.
+     * @param allowLoad Whether the column's chunk may be loaded (or generated).
+     * @return A valid spawn position, or null if none found.
+     */
+    public static BlockPos getSpawnablePos(ServerLevel world, BlockPos pos, boolean allowLoad) {
+        // First try to get surface position
+        BlockPos surfacePos = getSurfaceSpawnPos(world, pos, allowLoad);
+        if (surfacePos != null)
+            return surfacePos;
+
+        // If surface fails, try cave position
+        return getCaveSpawnPos(world, pos, allowLoad);
+    }
+
+    /**
+     * Gets a surface spawn position, answering from the SpawnCandidateCache or
+     * the PersistentSpawnIndex when the column has been checked before. A
+     * remembered cell is re-checked before it is handed out.
+     */
+    public static BlockPos getSurfaceSpawnPos(ServerLevel world, BlockPos pos, boolean allowLoad) {
+        int cachedY = SpawnCandidateCache.getSurfaceY(world, pos.getX(), pos.getZ());
+        if (cachedY == SpawnCandidateCache.NONE)
+            return null;
+        if (cachedY != SpawnCandidateCache.UNKNOWN) {
+            BlockPos cachedPos = new BlockPos(pos.getX(), cachedY, pos.getZ());
+            if (isStillSpawnable(world, cachedPos))
+                return cachedPos;
+            // Changed without a block event reaching the cache, look again below
+        }
+
+        LevelChunk chunk = getColumnChunk(world, pos.getX(), pos.getZ(), allowLoad);
+        if (chunk == null)
+            return null; // Not loaded, and not ours to load - don't cache that
+
+        PersistentSpawnIndex index = PersistentSpawnIndex.get(world);
+        int storedY = getStoredY(world, index, pos.getX(), pos.getZ(), SpawnIndexRegion.SURFACE);
+        if (storedY != SpawnCandidateCache.UNKNOWN) {
+            SpawnCandidateCache.putSurfaceY(world, pos.getX(), pos.getZ(), storedY);
+            return new BlockPos(pos.getX(), storedY, pos.getZ());
+        }
+
+        BlockPos surfacePos = findSurfaceSpawnPos(chunk, pos.getX(), pos.getZ());
+        int surfaceY = surfacePos == null ? SpawnCandidateCache.NONE : surfacePos.getY();
+        SpawnCandidateCache.putSurfaceY(world, pos.getX(), pos.getZ(), surfaceY);
+        if (index != null)
+            index.put(pos.getX(), pos.getZ(), SpawnIndexRegion.SURFACE, surfaceY);
+        return surfacePos;
+    }
+
+    /**
+     * Gets a cave spawn position, answering from the SpawnCandidateCache or the
+     * PersistentSpawnIndex when the column has been checked before. A
+     * remembered cell is re-checked before it is handed out.
+     * 
+     * @param world     The world.
+     * @param pos       The X,Z position.
+     * @param allowLoad Whether the column's chunk may be loaded (or generated).
+     * @return A valid spawn position, or null if none found.
+     */
+    public static BlockPos getCaveSpawnPos(ServerLevel world, BlockPos pos, boolean allowLoad) {
+        int cachedY = SpawnCandidateCache.getCaveY(world, pos.getX(), pos.getZ());
+        if (cachedY == SpawnCandidateCache.NONE)
+            return null;
+        if (cachedY != SpawnCandidateCache.UNKNOWN) {
+            BlockPos cachedPos = new BlockPos(pos.getX(), cachedY, pos.getZ());
+            if (isStillSpawnable(world, cachedPos))
+                return cachedPos;
+            // Changed without a block event reaching the cache, look again below
+        }
+
+        LevelChunk chunk = getColumnChunk(world, pos.getX(), pos.getZ(), allowLoad);
+        if (chunk == null)
+            return null;
+
+        PersistentSpawnIndex index = PersistentSpawnIndex.get(world);
+        int storedY = getStoredY(world, index, pos.getX(), pos.getZ(), SpawnIndexRegion.CAVE);
+        if (storedY != SpawnCandidateCache.UNKNOWN) {
+            SpawnCandidateCache.putCaveY(world, pos.getX(), pos.getZ(), storedY);
+            return new BlockPos(pos.getX(), storedY, pos.getZ());
+        }
+
+        BlockPos cavePos = ColumnScanner.findCaveCell(world, chunk, pos.getX(), pos.getZ());
+        int caveY = cavePos == null ? SpawnCandidateCache.NONE : cavePos.getY();
+        SpawnCandidateCache.putCaveY(world, pos.getX(), pos.getZ(), caveY);
+        if (index != null)
+            index.put(pos.getX(), pos.getZ(), SpawnIndexRegion.CAVE, caveY);
+        return cavePos;
+    }
+
+    /**
+     * Gets the chunk a column lives in. Chunks that are already loaded at FULL
+     * status are returned straight from the ServerChunkCache; anything else is
+     * only loaded when allowed, and every such load is counted.
+     *
+     * @param world     The world.
+     * @param x         The block X.
+     * @param z         The block Z.
+     * @param allowLoad Whether the chunk may be loaded (or generated).
+     * @return The chunk, or null if it isn't loaded and loading isn't allowed.
+     */
+    public static LevelChunk getColumnChunk(ServerLevel world, int x, int z, boolean allowLoad) {
+        LevelChunk chunk = world.getChunkSource().getChunkNow(x >> 4, z >> 4);
+        if (chunk != null || !allowLoad)
+            return chunk;
+
+        forcedChunkLoads++;
+        if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Spawn search loaded chunk [{}, {}] ({} loads so far)", x >> 4, z >> 4, forcedChunkLoads);
+        return world.getChunk(x >> 4, z >> 4);
+    }
+
+    /**
+     * Gets the number of chunk loads spawn searches have triggered since the
+     * server started.
+     */
+    public static long getForcedChunkLoads() {
+        return forcedChunkLoads;
+    }
+
+    /**
+     * Reads a column's cell from the persistent index, which only keeps
+     * columns that had one. A stored cell is only trusted after
+     * isStillSpawnable agrees, since the chunk may have changed while the
+     * index wasn't watching; a cell that fails is reported as UNKNOWN so the
+     * column gets scanned again (and a NONE result forgets the cell).
+     */
+    private static int getStoredY(ServerLevel world, PersistentSpawnIndex index, int x, int z, int kind) {
+        if (index == null)
+            return SpawnCandidateCache.UNKNOWN;
+
+        int storedY = index.get(x, z, kind);
+        if (storedY == SpawnCandidateCache.UNKNOWN)
+            return storedY;
+
+        return isStillSpawnable(world, new BlockPos(x, storedY, z)) ? storedY : SpawnCandidateCache.UNKNOWN;
+    }
+
+    /**
+     * Checks the column for a surface spawn position.
+     */
+    private static BlockPos findSurfaceSpawnPos(LevelChunk chunk, int x, int z) {
+        // Get the top non-leaves position
+        int surfaceY = chunk.getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, x & 15, z & 15) + 1;
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos(x, surfaceY - 1, z);
+
+        // Check that there's a solid block below and space above
+        if (!chunk.getBlockState(cursor).getMaterial().isSolid()) {
+            return null;
+        }
+
+        // Check for liquids
+        BlockState feet = chunk.getBlockState(cursor.setY(surfaceY));
+        if (feet.getMaterial().isLiquid()) {
+            return null;
+        }
+
+        // Make sure there's enough headroom (2 blocks)
+        if (feet.getMaterial().isSolid() ||
+                chunk.getBlockState(cursor.setY(surfaceY + 1)).getMaterial().isSolid()) {
+            return null;
+        }
+
+        return new BlockPos(x, surfaceY, z);
+    }
+
+    /**
+     * Cheap re-check of a position that was found earlier: solid floor, two
+     * free blocks above it and no liquid. Used before teleporting to a spot
+     * that was picked on a previous tick.
+     *
+     * @param world The world.
+     * @param pos   The previously found spawn position.
+     * @return True if the position can still be used.
+     */
+    public static boolean isStillSpawnable(ServerLevel world, BlockPos pos) {
+        if (world.getChunkSource().getChunkNow(pos.getX() >> 4, pos.getZ() >> 4) == null)
+            return false; // Unloaded since it was found, don't pull it back in
+
+        BlockState below = world.getBlockState(pos.below());
+        if (!below.getMaterial().isSolid() || below.getMaterial().isLiquid())
+            return false;
+
+        BlockState feet = world.getBlockState(pos);
+        if (feet.getMaterial().isSolid() || feet.getMaterial().isLiquid())
+            return false;
+
+        return !world.getBlockState(pos.above()).getMaterial().isSolid();
+    }
+}
@@ -0,0 +1,89 @@
+package com.itfollowsmod.world;
+
+import com.itfollowsmod.ItFollowsMod;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers when blocks last changed in each chunk section, from Forge's
+ * block events, so code that caches what it saw around a Stalker can tell
+ * whether it needs to look again. Changes made without block updates (a
+ * player flipping a door, for one) raise no event, so callers should still
+ * look again once in a while.
+ */
+@Mod.EventBusSubscriber(modid = ItFollowsMod.MOD_ID)
+public class BlockChangeTracker {
+    private static final long RETENTION = 200; // Older changes are forgotten; nobody caches that long
+    private static final Map<ResourceKey<Level>, Long2LongOpenHashMap> CHANGES = new HashMap<>();
+
+    /**
+     * Checks if a block changed in a box since a given time.
+     *
+     * @param level The level.
+     * @param from  One corner of the box.
+     * @param to    The opposite corner.
+     * @param since The game time of the last look.
+     * @return True if a block event arrived for a section the box touches at
+     * or after that time.
+     */
+    public static boolean hasChangedSince(ServerLevel level, BlockPos from, BlockPos to, long since) {
+        Long2LongOpenHashMap changes = CHANGES.get(level.dimension());
+        if (changes == null || changes.isEmpty())
+            return false;
+
+        for (int x = SectionPos.blockToSectionCoord(from.getX()); x <= SectionPos.blockToSectionCoord(to.getX()); x++) {
+            for (int y = SectionPos.blockToSectionCoord(from.getY()); y <= SectionPos.blockToSectionCoord(to.getY()); y++) {
+                for (int z = SectionPos.blockToSectionCoord(from.getZ()); z <= SectionPos.blockToSectionCoord(to.getZ()); z++) {
+                    if (changes.getOrDefault(SectionPos.asLong(x, y, z), Long.MIN_VALUE) >= since)
+                        return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stamps the section of every block event.
+     */
+    @SubscribeEvent
+    public static void onBlockEvent(BlockEvent event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel)
+            CHANGES.computeIfAbsent(serverLevel.dimension(), key -> new Long2LongOpenHashMap())
+                    .put(SectionPos.asLong(event.getPos()), serverLevel.getGameTime());
+    }
+
+    /**
+     * Forgets old changes every few seconds.
+     */
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || !(event.level instanceof ServerLevel serverLevel))
+            return;
+
+        long now = serverLevel.getGameTime();
+        Long2LongOpenHashMap changes = CHANGES.get(serverLevel.dimension());
+        if (changes != null && now % RETENTION == 0)
+            changes.values().removeIf(time -> now - time > RETENTION);
+    }
+
+    /**
+     * Drops the changes of a level that unloads.
+     */
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel)
+            CHANGES.remove(serverLevel.dimension());
+    }
+}
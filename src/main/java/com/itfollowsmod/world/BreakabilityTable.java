@@ -0,0 +1,134 @@
+package com.itfollowsmod.world;
+
+import com.itfollowsmod.ConfigSnapshot;
+import com.itfollowsmod.ItFollowsMod;
+import com.itfollowsmod.ModConfig;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.DoorBlock;
+import net.minecraft.world.level.block.FenceGateBlock;
+import net.minecraft.world.level.block.TrapDoorBlock;
+import net.minecraft.world.level.block.WallBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.event.server.ServerStartingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.registries.ForgeRegistries;
+import net.minecraftforge.server.ServerLifecycleHooks;
+
+import java.util.BitSet;
+
+/**
+ * Which block states a Stalker can break, worked out once per state and kept
+ * as a bitset indexed by block state ID, so the check the pathfinder and the
+ * obstacle handling make for every block is one bit lookup. The table is
+ * only ever built on the server thread: when the server starts, when the
+ * config changes and when datapack tags are (re)loaded. Path workers just
+ * read the last table published, so they never walk the registry or the
+ * tags while a reload swaps them.
+ *
+ * A state is breakable when it is not in the itfollowsmod:unbreakable tag
+ * and either is in the itfollowsmod:breakable tag, is softer than
+ * breakableBlockHardness, is a door, gate, trapdoor or wall, or is named like
+ * a barrier, torch or candle.
+ */
+@Mod.EventBusSubscriber(modid = ItFollowsMod.MOD_ID)
+public class BreakabilityTable {
+    public static final TagKey<Block> BREAKABLE = BlockTags.create(new ResourceLocation(ItFollowsMod.MOD_ID, "breakable"));
+    public static final TagKey<Block> UNBREAKABLE = BlockTags.create(new ResourceLocation(ItFollowsMod.MOD_ID, "unbreakable"));
+
+    private static volatile BitSet table = null;
+
+    /**
+     * Checks if a Stalker can break a block state.
+     *
+     * @param state The block state.
+     * @return True if the block is breakable, false if it isn't or no table
+     * has been built yet.
+     */
+    public static boolean isBreakable(BlockState state) {
+        BitSet current = table;
+        return current != null && current.get(Block.getId(state));
+    }
+
+    /**
+     * Builds the table for the server about to start.
+     */
+    @SubscribeEvent
+    public static void onServerStarting(ServerStartingEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Datapack reloads can change the tags. Only the server's own reload
+     * counts; the client receiving tags runs on its own thread.
+     */
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        if (event.getUpdateCause() == TagsUpdatedEvent.UpdateCause.SERVER_DATA_LOAD)
+            rebuild();
+    }
+
+    /**
+     * Rebuilds the table on the server thread after a config change. Config
+     * events may come from the file watcher's thread, so the work is handed
+     * to the running server; with no server running, onServerStarting builds
+     * it later.
+     */
+    public static void onConfigChanged() {
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (server != null)
+            server.execute(BreakabilityTable::rebuild);
+    }
+
+    /**
+     * Evaluates every registered block state and publishes the result. Only
+     * called on the server thread.
+     */
+    private static void rebuild() {
+        ConfigSnapshot config = ModConfig.current();
+        BitSet breakable = new BitSet(Block.BLOCK_STATE_REGISTRY.size());
+        int count = 0;
+        for (BlockState state : Block.BLOCK_STATE_REGISTRY) {
+            if (computeBreakable(state, config)) {
+                breakable.set(Block.getId(state));
+                count++;
+            }
+        }
+
+        table = breakable;
+        if (config.enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Breakability table built: {} breakable block states", count);
+    }
+
+    private static boolean computeBreakable(BlockState state, ConfigSnapshot config) {
+        if (state.is(UNBREAKABLE))
+            return false;
+        if (state.is(BREAKABLE))
+            return true;
+
+        // Softer than the configured threshold
+        float hardness = state.getDestroySpeed(EmptyBlockGetter.INSTANCE, BlockPos.ZERO);
+        if (hardness > 0 && hardness < config.breakableBlockHardness)
+            return true;
+
+        // Always break these thematic "barrier" types
+        Block block = state.getBlock();
+        if (block instanceof FenceGateBlock || block instanceof DoorBlock
+                || block instanceof TrapDoorBlock || block instanceof WallBlock)
+            return true;
+
+        ResourceLocation id = ForgeRegistries.BLOCKS.getKey(block);
+        if (id != null) {
+            String path = id.getPath();
+            return path.contains("barrier") || path.contains("torch") || path.contains("candle");
+        }
+
+        return false;
+    }
+}
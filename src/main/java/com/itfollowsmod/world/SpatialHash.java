@@ -0,0 +1,202 @@
+package com.itfollowsmod.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.world.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Buckets entities into square columns of the XZ plane so that "who is near
+ * this point" only looks at the surrounding buckets. Small populations are
+ * simply scanned in full, which is cheaper than walking empty buckets.
+ *
+ * @param <T> The kind of entity stored.
+ */
+public class SpatialHash<T extends Entity> {
+    private static final int LINEAR_SCAN_LIMIT = 16; // Below this many entries a full scan wins
+
+    private final int cellShift;
+    private final int cellSize;
+    private final Long2ObjectOpenHashMap<List<T>> cells = new Long2ObjectOpenHashMap<>();
+    private final List<T> all = new ArrayList<>();
+
+    /**
+     * Creates an empty hash.
+     *
+     * @param cellShift Cell size as a power of two (7 = 128 blocks).
+     */
+    public SpatialHash(int cellShift) {
+        this.cellShift = cellShift;
+        this.cellSize = 1 << cellShift;
+    }
+
+    /**
+     * Gets the key of the cell containing a position.
+     */
+    public long cellKey(double x, double z) {
+        return cellKey((int) Math.floor(x) >> cellShift, (int) Math.floor(z) >> cellShift);
+    }
+
+    /**
+     * Removes everything. Cell lists that were in use are kept for reuse,
+     * ones that were already empty are dropped.
+     */
+    public void clear() {
+        ObjectIterator<List<T>> iterator = cells.values().iterator();
+        while (iterator.hasNext()) {
+            List<T> cell = iterator.next();
+            if (cell.isEmpty()) {
+                iterator.remove();
+            } else {
+                cell.clear();
+            }
+        }
+        all.clear();
+    }
+
+    /**
+     * Adds an entity to the cell at its current position.
+     *
+     * @return The key of the cell it went into.
+     */
+    public long insert(T entity) {
+        long key = cellKey(entity.getX(), entity.getZ());
+        List<T> cell = cells.get(key);
+        if (cell == null) {
+            cell = new ArrayList<>();
+            cells.put(key, cell);
+        }
+        cell.add(entity);
+        all.add(entity);
+        return key;
+    }
+
+    /**
+     * Removes an entity from the given cell.
+     */
+    public void remove(T entity, long key) {
+        List<T> cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(entity);
+            if (cell.isEmpty())
+                cells.remove(key);
+        }
+        all.remove(entity);
+    }
+
+    /**
+     * Gets the number of entities stored.
+     */
+    public int size() {
+        return all.size();
+    }
+
+    /**
+     * Finds the entity closest to a point (3D distance), searching the rings of
+     * cells around it from the inside out and stopping once no farther ring can
+     * hold anything closer.
+     *
+     * @param x           The point's X.
+     * @param y           The point's Y.
+     * @param z           The point's Z.
+     * @param maxDistance Entities farther than this are ignored.
+     * @param filter      Entities that don't pass are ignored.
+     * @return The closest entity, or null if none qualifies.
+     */
+    public T nearest(double x, double y, double z, double maxDistance, Predicate<T> filter) {
+        double bestDistanceSqr = maxDistance * maxDistance;
+        T best = null;
+
+        if (all.size() <= LINEAR_SCAN_LIMIT) {
+            for (T entity : all) {
+                double distanceSqr = entity.distanceToSqr(x, y, z);
+                if (distanceSqr < bestDistanceSqr && filter.test(entity)) {
+                    bestDistanceSqr = distanceSqr;
+                    best = entity;
+                }
+            }
+            return best;
+        }
+
+        int centerX = (int) Math.floor(x) >> cellShift;
+        int centerZ = (int) Math.floor(z) >> cellShift;
+        int maxRing = (int) Math.ceil(maxDistance / cellSize);
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                // Only the border of the ring, the inside was done already
+                int step = (dx == -ring || dx == ring) ? 1 : ring * 2;
+                for (int dz = -ring; dz <= ring; dz += step) {
+                    List<T> cell = cells.get(cellKey(centerX + dx, centerZ + dz));
+                    if (cell == null)
+                        continue;
+                    for (T entity : cell) {
+                        double distanceSqr = entity.distanceToSqr(x, y, z);
+                        if (distanceSqr < bestDistanceSqr && filter.test(entity)) {
+                            bestDistanceSqr = distanceSqr;
+                            best = entity;
+                        }
+                    }
+                }
+            }
+
+            // Anything in the next ring is at least ring * cellSize away
+            double nextRingDistance = (double) ring * cellSize;
+            if (best != null && bestDistanceSqr <= nextRingDistance * nextRingDistance)
+                break;
+        }
+
+        return best;
+    }
+
+    /**
+     * Runs an action for every entity within a horizontal radius of a point.
+     *
+     * @param x      The point's X.
+     * @param z      The point's Z.
+     * @param radius The radius.
+     * @param action The action.
+     */
+    public void forEachNear(double x, double z, double radius, Consumer<T> action) {
+        double radiusSqr = radius * radius;
+
+        if (all.size() <= LINEAR_SCAN_LIMIT) {
+            for (T entity : all) {
+                if (horizontalDistanceSqr(entity, x, z) <= radiusSqr)
+                    action.accept(entity);
+            }
+            return;
+        }
+
+        int minCellX = (int) Math.floor(x - radius) >> cellShift;
+        int maxCellX = (int) Math.floor(x + radius) >> cellShift;
+        int minCellZ = (int) Math.floor(z - radius) >> cellShift;
+        int maxCellZ = (int) Math.floor(z + radius) >> cellShift;
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                List<T> cell = cells.get(cellKey(cellX, cellZ));
+                if (cell == null)
+                    continue;
+                for (T entity : cell) {
+                    if (horizontalDistanceSqr(entity, x, z) <= radiusSqr)
+                        action.accept(entity);
+                }
+            }
+        }
+    }
+
+    private static double horizontalDistanceSqr(Entity entity, double x, double z) {
+        double dx = entity.getX() - x;
+        double dz = entity.getZ() - z;
+        return dx * dx + dz * dz;
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return (long) cellX & 0xFFFFFFFFL | ((long) cellZ & 0xFFFFFFFFL) << 32;
+    }
+}
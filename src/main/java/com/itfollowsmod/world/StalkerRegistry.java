@@ -0,0 +1,444 @@
+package com.itfollowsmod.world;
+
+import com.itfollowsmod.ItFollowsMod;
+import com.itfollowsmod.entity.StalkerEntity;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-level record of every Stalker, loaded or not: its UUID, when it was
+ * first seen and where it was last. Kept up to date from entity join/leave
+ * events and saved with the level, so "is there a Stalker" and "which one is
+ * the oldest" never need a search through the level's entities.
+ */
+@Mod.EventBusSubscriber(modid = ItFollowsMod.MOD_ID)
+public class StalkerRegistry extends SavedData {
+    private static final String DATA_NAME = ItFollowsMod.MOD_ID + "_stalkers";
+    private static final int MAX_RETIRED = 64; // Oldest retired UUIDs are forgotten past this
+
+    private final Map<UUID, Entry> stalkers = new LinkedHashMap<>();
+    private final Map<UUID, UUID> stalkersByOwner = new HashMap<>(); // Per-player mode: owner -> Stalker
+    private final Set<UUID> retired = new LinkedHashSet<>(); // Replaced while unloaded, discard if they ever load; oldest first
+
+    /**
+     * What we know about one Stalker.
+     */
+    public static class Entry {
+        private final UUID id;
+        private final long createdAt;
+        private UUID owner;
+        private UUID pursuitTarget;
+        private boolean loaded;
+        private long unloadedAt; // Game time the chunk unloaded, if not loaded
+        private double x;
+        private double y;
+        private double z;
+
+        private Entry(UUID id, long createdAt) {
+            this.id = id;
+            this.createdAt = createdAt;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public long getCreatedAt() {
+            return createdAt;
+        }
+
+        public UUID getOwner() {
+            return owner;
+        }
+
+        public UUID getPursuitTarget() {
+            return pursuitTarget;
+        }
+
+        public boolean isLoaded() {
+            return loaded;
+        }
+
+        public long getUnloadedAt() {
+            return unloadedAt;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        public double getZ() {
+            return z;
+        }
+
+        /**
+         * Moves an unloaded Stalker's recorded position.
+         */
+        public void setPosition(double x, double y, double z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+
+    /**
+     * Gets (or creates) the registry of a level.
+     *
+     * @param level The level.
+     * @return The level's Stalker registry.
+     */
+    public static StalkerRegistry get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(StalkerRegistry::load, StalkerRegistry::new, DATA_NAME);
+    }
+
+    /**
+     * Reads the registry from the level's data folder.
+     */
+    public static StalkerRegistry load(CompoundTag tag) {
+        StalkerRegistry registry = new StalkerRegistry();
+        ListTag list = tag.getList("Stalkers", Tag.TAG_COMPOUND);
+
+        for (int i = 0; i < list.size(); i++) {
+            CompoundTag stalkerTag = list.getCompound(i);
+            Entry entry = new Entry(stalkerTag.getUUID("Id"), stalkerTag.getLong("CreatedAt"));
+            entry.x = stalkerTag.getDouble("X");
+            entry.y = stalkerTag.getDouble("Y");
+            entry.z = stalkerTag.getDouble("Z");
+            entry.unloadedAt = stalkerTag.getLong("UnloadedAt");
+            if (stalkerTag.hasUUID("PursuitTarget"))
+                entry.pursuitTarget = stalkerTag.getUUID("PursuitTarget");
+            if (stalkerTag.hasUUID("Owner")) {
+                entry.owner = stalkerTag.getUUID("Owner");
+                registry.stalkersByOwner.put(entry.owner, entry.id);
+            }
+            registry.stalkers.put(entry.id, entry);
+        }
+
+        ListTag retiredList = tag.getList("Retired", Tag.TAG_INT_ARRAY);
+        for (int i = 0; i < retiredList.size(); i++) {
+            registry.retired.add(NbtUtils.loadUUID(retiredList.get(i)));
+        }
+
+        return registry;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag) {
+        ListTag list = new ListTag();
+
+        for (Entry entry : stalkers.values()) {
+            CompoundTag stalkerTag = new CompoundTag();
+            stalkerTag.putUUID("Id", entry.id);
+            stalkerTag.putLong("CreatedAt", entry.createdAt);
+            stalkerTag.putDouble("X", entry.x);
+            stalkerTag.putDouble("Y", entry.y);
+            stalkerTag.putDouble("Z", entry.z);
+            stalkerTag.putLong("UnloadedAt", entry.unloadedAt);
+            if (entry.owner != null)
+                stalkerTag.putUUID("Owner", entry.owner);
+            if (entry.pursuitTarget != null)
+                stalkerTag.putUUID("PursuitTarget", entry.pursuitTarget);
+            list.add(stalkerTag);
+        }
+
+        ListTag retiredList = new ListTag();
+        for (UUID id : retired) {
+            retiredList.add(NbtUtils.createUUID(id));
+        }
+
+        tag.put("Stalkers", list);
+        tag.put("Retired", retiredList);
+        return tag;
+    }
+
+    /**
+     * Records a Stalker (first sighting sets its creation time), its owner
+     * and its current position.
+     *
+     * @param stalker The Stalker.
+     */
+    public void register(StalkerEntity stalker) {
+        if (retired.contains(stalker.getUUID()))
+            return; // Already replaced, it's about to be discarded
+
+        Entry entry = stalkers.get(stalker.getUUID());
+        if (entry == null) {
+            entry = new Entry(stalker.getUUID(), stalker.level.getGameTime());
+            stalkers.put(entry.id, entry);
+        }
+
+        if (!Objects.equals(entry.owner, stalker.getOwnerId())) {
+            unbindOwner(entry);
+            entry.owner = stalker.getOwnerId();
+        }
+        if (entry.owner != null)
+            stalkersByOwner.putIfAbsent(entry.owner, entry.id);
+
+        entry.loaded = true;
+        entry.x = stalker.getX();
+        entry.y = stalker.getY();
+        entry.z = stalker.getZ();
+        this.setDirty();
+    }
+
+    /**
+     * Records a Stalker whose chunk just unloaded, along with the player it
+     * was after so its pursuit can go on without it.
+     *
+     * @param stalker The Stalker.
+     */
+    public void markUnloaded(StalkerEntity stalker) {
+        register(stalker);
+
+        Entry entry = stalkers.get(stalker.getUUID());
+        if (entry != null) {
+            entry.loaded = false;
+            entry.unloadedAt = stalker.level.getGameTime();
+            entry.pursuitTarget = stalker.getPursuitTargetId();
+        }
+    }
+
+    /**
+     * Hands an unloaded Stalker's identity (creation time, owner, the player
+     * it pursues) to a new entity that replaces it. The old UUID is remembered so the original
+     * entity discards itself if its chunk ever loads again.
+     *
+     * @param oldId       The unloaded Stalker's UUID.
+     * @param replacement The new entity, not yet added to the level.
+     */
+    public void replace(UUID oldId, StalkerEntity replacement) {
+        Entry old = stalkers.get(oldId);
+        if (old == null)
+            return;
+
+        retire(oldId);
+
+        Entry entry = new Entry(replacement.getUUID(), old.createdAt);
+        entry.owner = old.owner;
+        entry.pursuitTarget = old.pursuitTarget;
+        stalkers.put(entry.id, entry);
+        if (entry.owner != null)
+            stalkersByOwner.putIfAbsent(entry.owner, entry.id);
+        replacement.setOwnerId(old.owner);
+        replacement.setPursuitTargetId(old.pursuitTarget);
+        this.setDirty();
+    }
+
+    /**
+     * Forgets an unloaded Stalker that isn't coming back by itself. The UUID
+     * is remembered so the entity discards itself if its chunk ever loads
+     * again.
+     *
+     * @param id The Stalker's UUID.
+     */
+    public void retire(UUID id) {
+        if (!stalkers.containsKey(id))
+            return;
+
+        remove(id);
+        retired.add(id);
+
+        // One that loads after being forgotten registers as the newest Stalker,
+        // so the duplicate cleanup removes it anyway
+        Iterator<UUID> oldest = retired.iterator();
+        while (retired.size() > MAX_RETIRED) {
+            oldest.next();
+            oldest.remove();
+        }
+        this.setDirty();
+    }
+
+    /**
+     * Checks if a Stalker was replaced while it was unloaded.
+     *
+     * @param id The Stalker's UUID.
+     */
+    public boolean isRetired(UUID id) {
+        return retired.contains(id);
+    }
+
+    /**
+     * Forgets a Stalker that is gone for good.
+     *
+     * @param id The Stalker's UUID.
+     */
+    public void remove(UUID id) {
+        Entry entry = stalkers.remove(id);
+        if (entry != null) {
+            unbindOwner(entry);
+            this.setDirty();
+        }
+        if (retired.remove(id))
+            this.setDirty();
+    }
+
+    /**
+     * Gets the Stalker bound to a player in per-player mode.
+     *
+     * @param owner The player's UUID.
+     * @return The Stalker's UUID, or null if the player has none here.
+     */
+    public UUID getStalkerFor(UUID owner) {
+        return stalkersByOwner.get(owner);
+    }
+
+    /**
+     * Checks if the level has any Stalker, loaded or not.
+     */
+    public boolean isEmpty() {
+        return stalkers.isEmpty();
+    }
+
+    /**
+     * Gets the number of Stalkers in the level, loaded or not.
+     */
+    public int size() {
+        return stalkers.size();
+    }
+
+    /**
+     * Gets what we know about a Stalker.
+     *
+     * @param id The Stalker's UUID.
+     * @return The entry, or null if it isn't registered here.
+     */
+    public Entry getEntry(UUID id) {
+        return stalkers.get(id);
+    }
+
+    /**
+     * Gets the Stalker that was seen first. Ties go to the one registered
+     * first.
+     *
+     * @return The oldest Stalker's UUID, or null if there are none.
+     */
+    public UUID getOldest() {
+        Entry oldest = null;
+        for (Entry entry : stalkers.values()) {
+            if (oldest == null || entry.createdAt < oldest.createdAt)
+                oldest = entry;
+        }
+        return oldest == null ? null : oldest.id;
+    }
+
+    /**
+     * Gets every Stalker that should not exist: all but the oldest one, or in
+     * per-player mode all but the oldest one of each owner (unbound Stalkers
+     * are left alone, they are waiting for a player).
+     *
+     * @param perOwner Whether Stalkers are grouped by owner.
+     * @return The UUIDs of the duplicates.
+     */
+    public List<UUID> getDuplicates(boolean perOwner) {
+        List<UUID> duplicates = new ArrayList<>();
+        if (!perOwner) {
+            UUID oldest = getOldest();
+            for (UUID id : stalkers.keySet()) {
+                if (!id.equals(oldest))
+                    duplicates.add(id);
+            }
+            return duplicates;
+        }
+
+        Map<UUID, Entry> oldestByOwner = new HashMap<>();
+        for (Entry entry : stalkers.values()) {
+            if (entry.owner == null)
+                continue;
+            Entry oldest = oldestByOwner.get(entry.owner);
+            if (oldest == null || entry.createdAt < oldest.createdAt) {
+                if (oldest != null)
+                    duplicates.add(oldest.id);
+                oldestByOwner.put(entry.owner, entry);
+            } else {
+                duplicates.add(entry.id);
+            }
+        }
+        return duplicates;
+    }
+
+    /**
+     * Gets a copy of the entries, safe to iterate while replacing Stalkers.
+     */
+    public List<Entry> getEntries() {
+        return new ArrayList<>(stalkers.values());
+    }
+
+    /**
+     * Gets a copy of the registered UUIDs, safe to iterate while discarding.
+     */
+    public List<UUID> getStalkerIds() {
+        return new ArrayList<>(stalkers.keySet());
+    }
+
+    /**
+     * Drops the owner binding of an entry, handing it to another Stalker of
+     * the same owner if there is one.
+     */
+    private void unbindOwner(Entry entry) {
+        if (entry.owner == null || !entry.id.equals(stalkersByOwner.get(entry.owner)))
+            return;
+
+        stalkersByOwner.remove(entry.owner);
+        for (Entry other : stalkers.values()) {
+            if (other != entry && entry.owner.equals(other.owner)) {
+                stalkersByOwner.put(other.owner, other.id);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Registers Stalkers as they are spawned or loaded. Runs last so a join
+     * cancelled by someone else never gets registered.
+     */
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onEntityJoin(EntityJoinLevelEvent event) {
+        if (event.getEntity() instanceof StalkerEntity stalker && event.getLevel() instanceof ServerLevel serverLevel) {
+            get(serverLevel).register(stalker);
+        }
+    }
+
+    /**
+     * Keeps unloaded Stalkers (with their last position) and forgets the ones
+     * that were discarded, killed or moved to another dimension.
+     */
+    @SubscribeEvent
+    public static void onEntityLeave(EntityLeaveLevelEvent event) {
+        if (!(event.getEntity() instanceof StalkerEntity stalker) || !(event.getLevel() instanceof ServerLevel serverLevel))
+            return;
+
+        Entity.RemovalReason reason = stalker.getRemovalReason();
+        StalkerRegistry registry = get(serverLevel);
+
+        if (reason == null || reason.shouldSave()) {
+            registry.markUnloaded(stalker); // Just unloaded, remember where it was
+        } else {
+            registry.remove(stalker.getUUID());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.itfollowsmod.world;
+
+import com.itfollowsmod.ItFollowsMod;
+import com.itfollowsmod.entity.StalkerEntity;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntitySelector;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Spatial hashes of the players and loaded Stalkers of one level. Players are
+ * re-bucketed at the start of every level tick; Stalkers move themselves
+ * between buckets as they cross cell borders. Lookups only visit the buckets
+ * around the point asked about, so they cost the same with 5 or 50 players.
+ */
+@Mod.EventBusSubscriber(modid = ItFollowsMod.MOD_ID)
+public class StalkerSpatialIndex {
+    private static final int CELL_SHIFT = 7; // 128 block cells
+    private static final Predicate<ServerPlayer> NOT_SPECTATOR = EntitySelector.NO_SPECTATORS::test;
+    private static final Map<ResourceKey<Level>, StalkerSpatialIndex> INDEXES = new HashMap<>();
+
+    private final SpatialHash<ServerPlayer> players = new SpatialHash<>(CELL_SHIFT);
+    private final SpatialHash<StalkerEntity> stalkers = new SpatialHash<>(CELL_SHIFT);
+    private final Map<StalkerEntity, Long> stalkerCells = new IdentityHashMap<>();
+
+    /**
+     * Gets (or creates) the index of a level.
+     *
+     * @param level The level.
+     * @return The level's index.
+     */
+    public static StalkerSpatialIndex get(ServerLevel level) {
+        return INDEXES.computeIfAbsent(level.dimension(), key -> new StalkerSpatialIndex());
+    }
+
+    /**
+     * Finds the closest non-spectator player, like Level.getNearestPlayer.
+     *
+     * @param from        The entity to measure from.
+     * @param maxDistance Players farther than this are ignored.
+     * @return The closest player, or null if none is in range.
+     */
+    public ServerPlayer nearestPlayer(Entity from, double maxDistance) {
+        return players.nearest(from.getX(), from.getY(), from.getZ(), maxDistance, NOT_SPECTATOR);
+    }
+
+    /**
+     * Finds the closest non-spectator player that also passes a filter.
+     *
+     * @param from        The entity to measure from.
+     * @param maxDistance Players farther than this are ignored.
+     * @param filter      Extra condition for the player.
+     * @return The closest player, or null if none qualifies.
+     */
+    public ServerPlayer nearestPlayer(Entity from, double maxDistance, Predicate<ServerPlayer> filter) {
+        return players.nearest(from.getX(), from.getY(), from.getZ(), maxDistance, NOT_SPECTATOR.and(filter));
+    }
+
+    /**
+     * Runs an action for every player within a horizontal radius.
+     */
+    public void forEachPlayerNear(double x, double z, double radius, Consumer<ServerPlayer> action) {
+        players.forEachNear(x, z, radius, action);
+    }
+
+    /**
+     * Finds the closest loaded Stalker that passes a filter.
+     *
+     * @param from        The entity to measure from.
+     * @param maxDistance Stalkers farther than this are ignored.
+     * @param filter      Condition for the Stalker.
+     * @return The closest Stalker, or null if none qualifies.
+     */
+    public StalkerEntity nearestStalker(Entity from, double maxDistance, Predicate<StalkerEntity> filter) {
+        return stalkers.nearest(from.getX(), from.getY(), from.getZ(), maxDistance, filter);
+    }
+
+    /**
+     * Puts a Stalker in the bucket for its current position, moving it only
+     * when it crossed into another cell. Called from the Stalker's tick.
+     *
+     * @param stalker The Stalker.
+     */
+    public void updateStalker(StalkerEntity stalker) {
+        long key = stalkers.cellKey(stalker.getX(), stalker.getZ());
+        Long current = stalkerCells.get(stalker);
+
+        if (current == null) {
+            stalkerCells.put(stalker, stalkers.insert(stalker));
+        } else if (current != key) {
+            stalkers.remove(stalker, current);
+            stalkerCells.put(stalker, stalkers.insert(stalker));
+        }
+    }
+
+    /**
+     * Takes a Stalker out of the index.
+     *
+     * @param stalker The Stalker.
+     */
+    public void removeStalker(StalkerEntity stalker) {
+        Long current = stalkerCells.remove(stalker);
+        if (current != null)
+            stalkers.remove(stalker, current);
+    }
+
+    /**
+     * Re-buckets the level's players before any entity ticks.
+     */
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if (event.phase != TickEvent.Phase.START || !(event.level instanceof ServerLevel serverLevel))
+            return;
+
+        StalkerSpatialIndex index = get(serverLevel);
+        index.players.clear();
+        for (ServerPlayer player : serverLevel.players()) {
+            index.players.insert(player);
+        }
+    }
+
+    /**
+     * Removes Stalkers that unloaded, died or changed dimension.
+     */
+    @SubscribeEvent
+    public static void onEntityLeave(EntityLeaveLevelEvent event) {
+        if (event.getEntity() instanceof StalkerEntity stalker && event.getLevel() instanceof ServerLevel serverLevel) {
+            get(serverLevel).removeStalker(stalker);
+        }
+    }
+
+    /**
+     * Drops the index of a level that unloads.
+     */
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel)
+            INDEXES.remove(serverLevel.dimension());
+    }
+}
@@ -0,0 +1,116 @@
+package com.itfollowsmod.world;
+
+import com.itfollowsmod.ItFollowsMod;
+import com.itfollowsmod.ModConfig;
+import com.itfollowsmod.entity.StalkerEntity;
+import com.itfollowsmod.registry.ModEntities;
+import com.itfollowsmod.spawn.ColumnScanner;
+import com.itfollowsmod.spawn.SpawnLocator;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Random;
+
+/**
+ * Moves Stalkers whose chunk unloaded toward their player on paper. The
+ * registry position is advanced in a straight line at walking speed, without
+ * touching the world, and once it is two chunks inside the player's
+ * simulation distance (and its chunk is loaded) a new Stalker takes the old
+ * one's place there. That's closer than a normal respawn, but anywhere
+ * farther the new Stalker would stand in a chunk that doesn't tick entities,
+ * frozen until the player happens to come near.
+ */
+@Mod.EventBusSubscriber(modid = ItFollowsMod.MOD_ID)
+public class VirtualPursuit {
+    private static final int UPDATE_INTERVAL = 20; // Once per second
+    private static final double GROUND_DRAG = 0.454; // 1 - (block friction 0.6 * air drag 0.91)
+
+    private static final Random random = new Random();
+
+    /**
+     * Advances every unloaded Stalker of the level once per second.
+     */
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || !(event.level instanceof ServerLevel serverLevel))
+            return;
+        if (serverLevel.getGameTime() % UPDATE_INTERVAL != 0 || !ModConfig.current().enableVirtualPursuit)
+            return;
+
+        StalkerRegistry registry = StalkerRegistry.get(serverLevel);
+        if (registry.isEmpty())
+            return;
+
+        double step = getBlocksPerTick(ModConfig.current().stalkerMovementSpeed) * UPDATE_INTERVAL;
+        // Walk to where it can be put back into the world and still tick
+        double targetDistance = Math.max(serverLevel.getServer().getPlayerList().getSimulationDistance() - 2, 1) * 16.0;
+
+        for (StalkerRegistry.Entry entry : registry.getEntries()) {
+            if (entry.isLoaded() || entry.getPursuitTarget() == null)
+                continue;
+
+            // Only players in this level can be followed from here
+            Entity target = serverLevel.getEntity(entry.getPursuitTarget());
+            if (!(target instanceof Player player) || player.isSpectator())
+                continue;
+
+            double dx = player.getX() - entry.getX();
+            double dz = player.getZ() - entry.getZ();
+            double distance = Math.sqrt(dx * dx + dz * dz);
+
+            double remaining = Math.max(distance - step, targetDistance);
+            if (remaining < distance) {
+                double travel = distance - remaining;
+                entry.setPosition(entry.getX() + dx / distance * travel, entry.getY(), entry.getZ() + dz / distance * travel);
+                distance = remaining;
+                registry.setDirty();
+            }
+
+            if (distance <= targetDistance)
+                materialize(serverLevel, registry, entry, player);
+        }
+    }
+
+    /**
+     * Gets how far a Stalker walks per tick at a movement speed. The follow
+     * goal moves at speed x speed, and ground friction settles the velocity at
+     * that acceleration divided by the drag.
+     *
+     * @param speed The movement speed attribute value.
+     */
+    public static double getBlocksPerTick(double speed) {
+        return speed * speed / GROUND_DRAG;
+    }
+
+    /**
+     * Replaces an unloaded Stalker with a new one at its virtual position, if
+     * that position is in a loaded chunk and has room for it.
+     */
+    private static void materialize(ServerLevel world, StalkerRegistry registry, StalkerRegistry.Entry entry, Player player) {
+        int x = Mth.floor(entry.getX());
+        int z = Mth.floor(entry.getZ());
+        if (!world.getChunkSource().hasChunk(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z)))
+            return;
+
+        BlockPos center = new BlockPos(x, Mth.floor(entry.getY()), z);
+        BlockPos spawnPos = SpawnLocator.getSpawnablePos(world, center, false);
+        if (spawnPos == null)
+            spawnPos = ColumnScanner.findAdjacentSpawnPos(world, center, random);
+        if (spawnPos == null)
+            return; // Try again on the next update
+
+        StalkerEntity stalker = new StalkerEntity(ModEntities.STALKER.get(), world);
+        stalker.setPos(spawnPos.getX() + 0.5, spawnPos.getY(), spawnPos.getZ() + 0.5);
+        registry.replace(entry.getId(), stalker);
+        world.addFreshEntity(stalker);
+
+        if (ModConfig.current().enableLogging) ItFollowsMod.LOGGER.info("[It Follows] Unloaded Stalker {} caught up with {} at {}", entry.getId(), player.getName().getString(), spawnPos);
+    }
+}